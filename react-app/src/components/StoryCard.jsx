@@ -82,7 +82,7 @@ const StoryCard = ({ story, showAuthor = true, compact = false }) => {
                     {/* Story Meta */}
                     {!compact && (
                         <div className="story-meta">
-                            <span>{story.chapters?.length || 0} chapters</span>
+                            <span>{story.chapterCount ?? story.chapters?.length ?? 0} chapters</span>
                             <span>Updated {formatDate(story.updatedAt || story.createdAt)}</span>
                         </div>
                     )}
@@ -12,6 +12,8 @@ const ChapterReader = () => {
   const [chapter, setChapter] = useState(null);
   const [story, setStory] = useState(null);
   const [comments, setComments] = useState([]);
+  const [commentsCursor, setCommentsCursor] = useState(null);
+  const [commentCount, setCommentCount] = useState(0);
   const [loading, setLoading] = useState(true);
 
   const [newComment, setNewComment] = useState('');
@@ -26,12 +28,14 @@ const ChapterReader = () => {
   async function fetchChapterData() {
     try {
       setLoading(true);
-      const [storyRes, chapterRes] = await Promise.all([
+      const [storyRes, chapterRes, contentRes] = await Promise.all([
         api.get(`/stories/${storyId}`),
-        api.get(`/stories/${storyId}/chapter/${chapterNumber}`)
+        api.get(`/stories/${storyId}/chapter/${chapterNumber}`),
+        api.get(`/stories/${storyId}/chapter/${chapterNumber}/content`, { responseType: 'text' })
       ]);
       setStory(storyRes.data);
-      setChapter(chapterRes.data);
+      setChapter({ ...chapterRes.data, content: contentRes.data });
+      setCommentCount(Number(chapterRes.headers['x-comment-count'] || 0));
       if (chapterRes.data) fetchComments(chapterRes.data.id);
     } catch (e) {
       console.error('Failed to fetch chapter:', e);
@@ -40,13 +44,42 @@ const ChapterReader = () => {
     }
   }
 
-  async function fetchComments(chapterId) {
+  // First page replaces the list; passing the previous nextCursor appends the following page
+  async function fetchComments(chapterId, cursor = null) {
     try {
-      const res = await api.get(`/stories/${storyId}/chapters/${chapterId}/comments`);
-      setComments(res.data);
+      const res = await api.get(`/stories/${storyId}/chapters/${chapterId}/comments`, {
+        params: { sort: 'newest', cursor: cursor || undefined },
+      });
+      setComments(prev => (cursor ? [...prev, ...res.data.content] : res.data.content));
+      setCommentsCursor(res.data.nextCursor);
     } catch (err) {
       console.error('Failed to fetch comments:', err);
-      setComments([]);
+      if (!cursor) setComments([]);
+    }
+  }
+
+  // Replies come back flat in thread order; each one is hung under its parent
+  async function handleLoadMoreReplies(thread) {
+    try {
+      const res = await api.get(`/stories/${storyId}/chapters/${chapter.id}/comments/${thread.id}/replies`, {
+        params: { cursor: thread.repliesCursor },
+      });
+      setComments(prev => prev.map(root => {
+        if (root.id !== thread.id) return root;
+        const updated = structuredClone(root);
+        const byId = new Map();
+        const index = node => { byId.set(node.id, node); node.replies.forEach(index); };
+        index(updated);
+        res.data.content.forEach(reply => {
+          const parent = byId.get(reply.parentId) || updated;
+          parent.replies.push(reply);
+          byId.set(reply.id, reply);
+        });
+        updated.repliesCursor = res.data.nextCursor;
+        return updated;
+      }));
+    } catch (e) {
+      console.error('Failed to load replies:', e);
     }
   }
 
@@ -57,6 +90,7 @@ const ChapterReader = () => {
     try {
       await api.post(`/stories/${storyId}/chapters/${chapter.id}/comments`, { userId: user.id, content: newComment.trim() });
       setNewComment('');
+      setCommentCount(count => count + 1);
       fetchComments(chapter.id);
     } catch (e) {
       console.error('Failed to submit comment:', e);
@@ -72,6 +106,7 @@ const ChapterReader = () => {
         userId: user.id,
         content: replyText.trim(),
       });
+      setCommentCount(count => count + 1);
       fetchComments(chapter.id);
     } catch (e) {
       console.error('Failed to submit reply:', e);
@@ -82,8 +117,14 @@ const ChapterReader = () => {
   async function handleLikeComment(commentId) {
     if (!user) return;
     try {
-      await api.post(`/stories/${storyId}/chapters/${chapter.id}/comments/${commentId}/like?userId=${user.id}`);
-      fetchComments(chapter.id);
+      const res = await api.post(`/stories/${storyId}/chapters/${chapter.id}/comments/${commentId}/like?userId=${user.id}`);
+      // The liked comment can sit at any depth of its thread
+      const withCount = c => ({
+        ...c,
+        likeCount: c.id === commentId ? res.data.likeCount : c.likeCount,
+        replies: c.replies ? c.replies.map(withCount) : c.replies,
+      });
+      setComments(prev => prev.map(withCount));
     } catch (e) {
       console.error('Failed to like comment:', e);
     }
@@ -125,9 +166,9 @@ const ChapterReader = () => {
     <div className={`comment ${isReply ? 'comment-reply' : ''}`}>
       <div className="comment-header">
         <div className="comment-author">
-          <div className="author-avatar">{comment.user.username.charAt(0).toUpperCase()}</div>
+          <div className="author-avatar">{comment.username.charAt(0).toUpperCase()}</div>
           <div className="author-info">
-            <span className="author-name">{comment.user.username}</span>
+            <span className="author-name">{comment.username}</span>
             <span className="comment-time">{formatTimeAgo(comment.createdAt)}</span>
           </div>
         </div>
@@ -158,6 +199,11 @@ const ChapterReader = () => {
           {comment.replies.map(reply => <Comment key={reply.id} comment={reply} isReply={true} />)}
         </div>
       )}
+      {comment.repliesCursor && (
+        <button className="comment-action-btn" onClick={() => handleLoadMoreReplies(comment)}>
+          Show more replies
+        </button>
+      )}
     </div>
   );
 
@@ -191,7 +237,7 @@ const ChapterReader = () => {
       </div>
 
       <div className="comments-section">
-        <h3 className="comments-title">Comments ({comments.length})</h3>
+        <h3 className="comments-title">Comments ({commentCount})</h3>
         {user ? (
           <form onSubmit={handleSubmitComment} className="comment-form">
             <div className="comment-form-header">
@@ -219,7 +265,12 @@ const ChapterReader = () => {
           {comments.length === 0 ? (
             <div className="no-comments"><p>No comments yet. Be the first to share your thoughts!</p></div>
           ) : (
-            comments.filter(c => !c.parentComment).map(comment => <Comment key={comment.id} comment={comment} />)
+            comments.map(comment => <Comment key={comment.id} comment={comment} />)
+          )}
+          {commentsCursor && (
+            <button className="btn-secondary" onClick={() => fetchComments(chapter.id, commentsCursor)}>
+              Load more comments
+            </button>
           )}
         </div>
 
@@ -57,33 +57,29 @@ const StoryPage = () => {
         }
     };
 
-    const fetchUserRating = async (storyId, userId) => {
-        try {
-            const res = await api.get(`/stories/${storyId}/ratings`, { params: { userId } });
-            if (res.status === 204) {
-                setRating(0);
-            } else {
-                setRating(res.data.rating);
-            }
-        } catch {
-            setRating(0);
-        }
-    };
-
     const fetchStoryData = useCallback(async () => {
         try {
             setLoading(true);
-            const response = await api.get(`/stories/${storyId}`);
+            const [response, tocRes] = await Promise.all([
+                api.get(`/stories/${storyId}`),
+                api.get(`/stories/${storyId}/chapters`)
+            ]);
             const storyData = response.data;
             setStory(storyData);
-            setChapters(storyData.chapters || []);
+            setChapters(tocRes.data || []);
 
             if (user) {
-                await fetchUserRating(storyId, user.id);
-                await fetchReadingStatus();
-
-                const likeRes = await api.get(`/stories/${storyId}/like`, { params: { userId: user.id } });
-                setIsLiked(likeRes.data.liked);
+                // Like, rating and reading state in one call
+                const stateRes = await api.get('/stories/viewer-state', { params: { userId: user.id, ids: storyId } });
+                const viewerState = stateRes.data[0];
+                setIsLiked(viewerState.liked);
+                setRating(viewerState.rating || 0);
+                setReadingStatus(viewerState.readStatus);
+                setReadingData(viewerState.readStatus ? {
+                    status: viewerState.readStatus,
+                    currentChapter: viewerState.currentChapter,
+                    progress: viewerState.progress,
+                } : null);
 
                 if (storyData.author?.id !== user.id) {
                     const followRes = await api.get(`/users/${user.id}/following`);
@@ -0,0 +1,63 @@
+package com.aniket.newproject.config;
+
+import java.util.Locale;
+
+// Accept-Encoding negotiation per RFC 9110: codings are case-insensitive, "q=0" means "not acceptable",
+// an explicit entry wins over "*", and x-gzip/x-compress are aliases. A missing header accepts nothing
+// but identity, which is also what every endpoint falls back to.
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    public static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null || coding == null) {
+            return false;
+        }
+
+        String wanted = normalize(coding);
+        Double explicit = null;
+        Double wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String name = normalize(parts[0]);
+            if (name.isEmpty()) {
+                continue;
+            }
+            double q = quality(parts);
+            if (name.equals(wanted)) {
+                explicit = explicit == null ? q : Math.max(explicit, q);
+            } else if (name.equals("*")) {
+                wildcard = wildcard == null ? q : Math.max(wildcard, q);
+            }
+        }
+
+        Double q = explicit != null ? explicit : wildcard;
+        return q != null && q > 0;
+    }
+
+    // A malformed weight makes the entry unusable rather than silently acceptable
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 1 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q')) {
+                String value = param.substring(1).trim();
+                if (!value.startsWith("=")) {
+                    continue;
+                }
+                try {
+                    double q = Double.parseDouble(value.substring(1).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String normalize(String coding) {
+        String name = coding.trim().toLowerCase(Locale.ROOT);
+        return name.equals("x-gzip") || name.equals("x-compress") ? name.substring(2) : name;
+    }
+}
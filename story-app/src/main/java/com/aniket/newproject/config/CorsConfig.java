@@ -15,6 +15,9 @@ public class CorsConfig {
         configuration.addAllowedOrigin("http://localhost:3000"); // React dev server
         configuration.addAllowedMethod("*");
         configuration.addAllowedHeader("*");
+        // Next-chapter hint and comment count on chapter responses
+        configuration.addExposedHeader("Link");
+        configuration.addExposedHeader("X-Comment-Count");
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,40 @@
+package com.aniket.newproject.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Cache-Control for conditional-GET endpoints. A max-age of 0 means "no-cache": the browser keeps
+// the response but revalidates every time, which costs a 304 and one stamp query.
+@Component
+public class HttpCachePolicy {
+
+    @Value("${app.http.cache.storyMaxAgeSeconds:0}")
+    private long storyMaxAge;
+
+    @Value("${app.http.cache.chapterMaxAgeSeconds:60}")
+    private long chapterMaxAge;
+
+    @Value("${app.http.cache.chapterContentMaxAgeSeconds:300}")
+    private long chapterContentMaxAge;
+
+    public CacheControl story() {
+        return of(storyMaxAge);
+    }
+
+    public CacheControl chapter() {
+        return of(chapterMaxAge);
+    }
+
+    public CacheControl chapterContent() {
+        return of(chapterContentMaxAge);
+    }
+
+    private static CacheControl of(long maxAgeSeconds) {
+        return maxAgeSeconds <= 0
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).mustRevalidate();
+    }
+}
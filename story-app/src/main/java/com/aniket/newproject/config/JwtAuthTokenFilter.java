@@ -1,5 +1,8 @@
 package com.aniket.newproject.config;
 
+import com.aniket.newproject.model.UserPrincipal;
+import com.aniket.newproject.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +10,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,33 +22,33 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            System.out.println("JWT from header: " + jwt);
 
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                System.out.println("JWT valid, username: " + username);
+            // One verification per token; repeats are served from the claims cache
+            Claims claims = jwt != null ? jwtUtils.parseVerifiedClaims(jwt) : null;
 
-                // Load user details from DB or service
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (claims != null) {
+                // Id and roles come from the token claims, no DB hit
+                UserPrincipal principal = jwtUtils.getPrincipalFromClaims(claims);
+                if (principal == null) {
+                    // Older tokens carry only the username
+                    principal = principalCache.get(claims.getSubject());
+                }
 
                 // Create authentication token with user details
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 // Set authentication in context
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            } else {
-                System.out.println("JWT is null or invalid");
             }
         } catch (Exception e) {
             System.err.println("JWT authentication error: " + e.getMessage());
@@ -1,16 +1,25 @@
 package com.aniket.newproject.config;
 
+import com.aniket.newproject.model.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -22,8 +31,27 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs:86400000}") // 24 hours
     private int jwtExpirationMs;
 
+    @Value("${app.jwtClaimsCacheSize:50000}")
+    private long claimsCacheSize;
+
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by SHA-256 of the token, dropped at the token's exp
+    private Cache<String, Claims> verifiedClaims;
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
     public String generateJwtToken(UserDetails userPrincipal) {
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        Map<String, Object> claims = new HashMap<>();
+        if (userPrincipal instanceof UserPrincipal principal && principal.getId() != null) {
+            claims.put(USER_ID_CLAIM, principal.getId().toString());
+        }
+        claims.put(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return createToken(claims, userPrincipal.getUsername());
     }
 
     public String generateTokenFromUsername(String username) {
@@ -41,42 +69,120 @@ public class JwtUtils {
                 .compact();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long ttlMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMs, 0));
+                    }
 
-    public String getUserNameFromJwtToken(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private SecretKey getSignInKey() {
+        return signInKey;
     }
 
-    public Boolean validateJwtToken(String authToken) {
+    // Parses and verifies the token at most once per distinct token; null if invalid
+    public Claims parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String key = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
+
         try {
-            Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(authToken);
-            return true;
+            claims = jwtParser.parseSignedClaims(token).getPayload();
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
+            return null;
         } catch (ExpiredJwtException e) {
             System.err.println("JWT token is expired: " + e.getMessage());
+            return null;
         } catch (UnsupportedJwtException e) {
             System.err.println("JWT token is unsupported: " + e.getMessage());
+            return null;
+        } catch (JwtException e) {
+            System.err.println("JWT signature is invalid: " + e.getMessage());
+            return null;
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    // Returns null for tokens issued without the uid claim; those need a lookup
+    public UserPrincipal getPrincipalFromJwtToken(String token) {
+        return extractClaim(token, this::getPrincipalFromClaims);
+    }
+
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Object roles = claims.get(ROLES_CLAIM);
+        if (roles instanceof Collection<?> values) {
+            values.forEach(role -> authorities.add(new SimpleGrantedAuthority(String.valueOf(role))));
         }
-        return false;
+        return new UserPrincipal(UUID.fromString(userId), claims.getSubject(), authorities);
+    }
+
+    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+        final Claims claims = extractAllClaims(token);
+        return claimsResolver.apply(claims);
+    }
+
+    private Claims extractAllClaims(String token) {
+        Claims claims = parseVerifiedClaims(token);
+        if (claims == null) {
+            throw new MalformedJwtException("JWT token could not be verified");
+        }
+        return claims;
+    }
+
+    public Boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
     }
 
     public Boolean isTokenExpired(String token) {
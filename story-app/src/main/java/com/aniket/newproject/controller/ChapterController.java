@@ -1,13 +1,36 @@
 package com.aniket.newproject.controller;
 
+import com.aniket.newproject.config.AcceptEncoding;
+import com.aniket.newproject.config.HttpCachePolicy;
+import com.aniket.newproject.dto.ChapterPatchRequest;
 import com.aniket.newproject.dto.ChapterRequest;
+import com.aniket.newproject.dto.ChapterRevisionSummary;
+import com.aniket.newproject.dto.ChapterStamp;
+import com.aniket.newproject.dto.ChapterTocEntry;
 import com.aniket.newproject.model.Chapter;
+import com.aniket.newproject.model.UserPrincipal;
+import com.aniket.newproject.service.ChapterPrefetchCache;
 import com.aniket.newproject.service.ChapterService;
+import com.aniket.newproject.service.ReadCountService;
+import com.aniket.newproject.service.RevisionConflictException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -16,25 +39,137 @@ import java.util.UUID;
 public class ChapterController {
 
     private final ChapterService chapterService;
+    private final HttpCachePolicy cachePolicy;
+    private final ChapterPrefetchCache prefetchCache;
+    private final ReadCountService readCountService;
+
+    private static final int MAX_TOC_SIZE = 200;
 
     @GetMapping("/chapters")
-    public ResponseEntity<List<Chapter>> getChaptersByStory(@PathVariable UUID storyId) {
-        return ResponseEntity.ok(chapterService.getChaptersByStoryId(storyId));
+    public ResponseEntity<List<ChapterTocEntry>> getChaptersByStory(@PathVariable UUID storyId) {
+        return ResponseEntity.ok(chapterService.getTableOfContents(storyId));
+    }
+
+    @GetMapping("/toc")
+    public ResponseEntity<Page<ChapterTocEntry>> getTableOfContents(
+            @PathVariable UUID storyId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_TOC_SIZE));
+        return ResponseEntity.ok(chapterService.getTableOfContents(storyId, Math.max(0, page), pageSize));
     }
 
     @GetMapping("/{chapterId}")
     public ResponseEntity<Chapter> getChapterById(
             @PathVariable UUID storyId,
-            @PathVariable UUID chapterId
+            @PathVariable UUID chapterId,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(chapterService.getChapterById(chapterId));
+        ChapterStamp stamp = chapterService.getChapterStamp(chapterId);
+        if (webRequest.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cachePolicy.chapter())
+                .body(chapterService.getChapterById(chapterId));
     }
 
+    // Readers go on to n+1, so it is prefetched (and advertised with Link) whenever n is served
     @GetMapping("/chapter/{chapterNumber}")
-    public ResponseEntity<Chapter> getChapterByNumber(
+    public ResponseEntity<byte[]> getChapterByNumber(
+            @PathVariable UUID storyId,
+            @PathVariable int chapterNumber,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        ChapterStamp stamp = chapterService.getChapterStamp(storyId, chapterNumber);
+        // Counted before the 304 check: a revalidating reader is still reading
+        readCountService.recordRead(storyId, readerId(request));
+        if (stamp.hasNext()) {
+            prefetchCache.prefetch(storyId, chapterNumber + 1);
+        }
+        if (webRequest.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+
+        ChapterPrefetchCache.Prefetched chapter = prefetchCache.get(storyId, stamp);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cachePolicy.chapter())
+                .header("X-Comment-Count", String.valueOf(stamp.getCommentCount()));
+        if (stamp.hasNext()) {
+            String next = "/stories/" + storyId + "/chapter/" + (chapterNumber + 1);
+            response.header(HttpHeaders.LINK,
+                    "<" + next + ">; rel=\"next\"", "<" + next + "/content>; rel=\"prefetch\"");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(chapter.json());
+    }
+
+    // Raw chapter text. Whole bodies go out pre-compressed when the client accepts it;
+    // a single byte Range is served from the plain text, otherwise the whole body is sent.
+    // The gzip'd and plain representations carry different ETags
+    @GetMapping("/chapter/{chapterNumber}/content")
+    public ResponseEntity<StreamingResponseBody> getChapterContent(
             @PathVariable UUID storyId,
-            @PathVariable int chapterNumber) {
-        return ResponseEntity.ok(chapterService.getChapterByNumber(storyId, chapterNumber));
+            @PathVariable int chapterNumber,
+            @RequestHeader HttpHeaders headers,
+            WebRequest webRequest) {
+        ChapterStamp stamp = chapterService.getChapterStamp(storyId, chapterNumber);
+        UUID chapterId = stamp.getId();
+        String encoding = chapterService.getContentEncoding();
+        boolean encoded = !headers.containsKey(HttpHeaders.RANGE)
+                && AcceptEncoding.accepts(headers.getFirst(HttpHeaders.ACCEPT_ENCODING), encoding);
+        String etag = stamp.contentEtag(encoded ? encoding : null);
+        // Sets ETag and Last-Modified on the response either way
+        if (webRequest.checkNotModified(etag, stamp.contentLastModified())) {
+            return null;
+        }
+        Integer revision = stamp.getRevision();
+        long length = chapterService.getContentLength(chapterId, revision);
+
+        ResponseEntity.BodyBuilder response;
+        long start = 0;
+        long count = length;
+        try {
+            // A Range whose If-Range names an older version gets the whole new body instead
+            String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+            List<HttpRange> ranges = ifRange == null || ifRange.equals(etag)
+                    ? headers.getRange()
+                    : List.of();
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                count = ranges.get(0).getRangeEnd(length) - start + 1;
+                if (start >= length || count <= 0) {
+                    throw new IllegalArgumentException("Range outside 0-" + length);
+                }
+                response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+            } else {
+                if (encoded) {
+                    return ResponseEntity.ok()
+                            .cacheControl(cachePolicy.chapterContent())
+                            .header(HttpHeaders.CONTENT_ENCODING, encoding)
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                            .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                            .contentLength(chapterService.getEncodedContentLength(chapterId, revision))
+                            .body(out -> chapterService.writeEncodedContent(chapterId, revision, out));
+                }
+                response = ResponseEntity.ok();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        long position = start;
+        long bytes = count;
+        return response
+                .cacheControl(cachePolicy.chapterContent())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(bytes)
+                .body(out -> chapterService.writeContent(chapterId, revision, position, bytes, out));
     }
 
     @PostMapping("/chapters")
@@ -54,6 +189,51 @@ public class ChapterController {
         return ResponseEntity.ok(chapter);
     }
 
+    // Autosave path: only the edit ops travel, computed against the revision with contentHash == baseHash.
+    // 409 carries the current hash so the editor can rebase and retry
+    @PatchMapping("/chapters/{chapterId}")
+    public ResponseEntity<?> patchChapter(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @RequestBody ChapterPatchRequest request) {
+        try {
+            return ResponseEntity.ok(chapterService.patchChapter(storyId, chapterId, request));
+        } catch (RevisionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(),
+                            "contentHash", e.getCurrentHash(),
+                            "revision", e.getCurrentRevision()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/chapters/{chapterId}/revisions")
+    public ResponseEntity<List<ChapterRevisionSummary>> getRevisions(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId) {
+        return ResponseEntity.ok(chapterService.getRevisionHistory(storyId, chapterId));
+    }
+
+    @GetMapping("/chapters/{chapterId}/revisions/{revision}")
+    public ResponseEntity<String> getRevisionContent(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @PathVariable int revision) {
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(chapterService.getRevisionContent(storyId, chapterId, revision));
+    }
+
+    // Reorders: the chapter takes slot `number` and the chapters in between slide by one
+    @PutMapping("/chapters/{chapterId}/position")
+    public ResponseEntity<Chapter> moveChapter(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @RequestParam int number) {
+        return ResponseEntity.ok(chapterService.moveChapter(storyId, chapterId, number));
+    }
+
     @DeleteMapping("/chapters/{chapterId}")
     public ResponseEntity<Void> deleteChapter(
             @PathVariable UUID storyId,
@@ -61,5 +241,13 @@ public class ChapterController {
         chapterService.deleteChapter(storyId, chapterId);
         return ResponseEntity.ok().build();
     }
-}
 
+    // Signed-in readers by user id, anonymous ones by address
+    private static UUID readerId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return UUID.nameUUIDFromBytes(("anonymous:" + request.getRemoteAddr()).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,13 +1,16 @@
 package com.aniket.newproject.controller;
 
+import com.aniket.newproject.dto.CommentLikeState;
+import com.aniket.newproject.dto.CommentNode;
 import com.aniket.newproject.dto.CommentRequest;
+import com.aniket.newproject.dto.CursorSlice;
 import com.aniket.newproject.model.Comment;
+import com.aniket.newproject.service.CommentLikeService;
 import com.aniket.newproject.service.CommentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -16,13 +19,46 @@ import java.util.UUID;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentLikeService commentLikeService;
 
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_PREVIEW_REPLIES = 20;
+
+    // Top-level comments, cursor-paginated; sort is newest, oldest or top (by likes).
+    // Each carries its first `replies` replies and, when there are more, a repliesCursor
     @GetMapping("/comments")
-    public ResponseEntity<List<Comment>> getCommentsByChapter(
+    public ResponseEntity<CursorSlice<CommentNode>> getCommentsByChapter(
             @PathVariable UUID storyId,
-            @PathVariable UUID chapterId) {
+            @PathVariable UUID chapterId,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies) {
         commentService.validateChapterBelongsToStory(chapterId, storyId);
-        return ResponseEntity.ok(commentService.getCommentsByChapter(chapterId));
+        try {
+            return ResponseEntity.ok(commentService.getComments(chapterId, sort, cursor,
+                    Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                    Math.max(0, Math.min(replies, MAX_PREVIEW_REPLIES))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // More replies under a comment, flat in thread order (parentId/depth give the nesting)
+    @GetMapping("/comments/{commentId}/replies")
+    public ResponseEntity<CursorSlice<CommentNode>> getReplies(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @PathVariable UUID commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        commentService.validateChapterBelongsToStory(chapterId, storyId);
+        try {
+            return ResponseEntity.ok(commentService.getReplies(chapterId, commentId, cursor,
+                    Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/comments")
@@ -46,15 +82,35 @@ public class CommentController {
         return ResponseEntity.ok(reply);
     }
 
+    // Toggle, kept for existing clients; PUT and DELETE below are the idempotent forms
     @PostMapping("/comments/{commentId}/like")
-    public ResponseEntity<Void> likeComment(
+    public ResponseEntity<CommentLikeState> toggleCommentLike(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @PathVariable UUID commentId,
+            @RequestParam UUID userId) {
+        commentService.validateChapterBelongsToStory(chapterId, storyId);
+        return ResponseEntity.ok(commentLikeService.toggle(commentId, userId));
+    }
+
+    @PutMapping("/comments/{commentId}/like")
+    public ResponseEntity<CommentLikeState> likeComment(
+            @PathVariable UUID storyId,
+            @PathVariable UUID chapterId,
+            @PathVariable UUID commentId,
+            @RequestParam UUID userId) {
+        commentService.validateChapterBelongsToStory(chapterId, storyId);
+        return ResponseEntity.ok(commentLikeService.like(commentId, userId));
+    }
+
+    @DeleteMapping("/comments/{commentId}/like")
+    public ResponseEntity<CommentLikeState> unlikeComment(
             @PathVariable UUID storyId,
             @PathVariable UUID chapterId,
             @PathVariable UUID commentId,
             @RequestParam UUID userId) {
         commentService.validateChapterBelongsToStory(chapterId, storyId);
-        commentService.toggleCommentLike(commentId, userId);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(commentLikeService.unlike(commentId, userId));
     }
 
     // Additional methods for update and delete can follow the existing conventions
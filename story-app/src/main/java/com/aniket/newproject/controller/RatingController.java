@@ -1,5 +1,6 @@
 package com.aniket.newproject.controller;
 
+import com.aniket.newproject.dto.RatingDistribution;
 import com.aniket.newproject.model.Rating;
 import com.aniket.newproject.service.RatingService;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,10 @@ public class RatingController {
         return ResponseEntity.ok(rating);
     }
 
+    @GetMapping("/distribution")
+    public ResponseEntity<RatingDistribution> getDistribution(@PathVariable UUID storyId) {
+        return ResponseEntity.ok(ratingService.getDistribution(storyId));
+    }
 
     @PostMapping
     public ResponseEntity<String> rateStory(
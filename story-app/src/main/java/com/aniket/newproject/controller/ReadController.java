@@ -49,15 +49,17 @@ public class ReadController {
         return ResponseEntity.noContent().build();
     }
 
+    // Heartbeat: 202 while the position is buffered, 204 once sessionEnd has written it
     @PostMapping("/progress")
-    public ResponseEntity<Read> updateReadingProgress(
+    public ResponseEntity<Void> updateReadingProgress(
             @RequestParam UUID userId,
             @RequestParam UUID storyId,
             @RequestParam Integer chapterNumber,
-            @RequestParam(required = false) Integer progress
+            @RequestParam(required = false) Integer progress,
+            @RequestParam(defaultValue = "false") boolean sessionEnd
     ) {
-        Read read = readService.updateReadingProgress(userId, storyId, chapterNumber, progress);
-        return ResponseEntity.ok(read);
+        readService.updateReadingProgress(userId, storyId, chapterNumber, progress, sessionEnd);
+        return sessionEnd ? ResponseEntity.noContent().build() : ResponseEntity.accepted().build();
     }
 
     // Get all reads for a user (used by MyReads page)
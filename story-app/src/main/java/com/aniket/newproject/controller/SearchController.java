@@ -1,6 +1,6 @@
 package com.aniket.newproject.controller;
 
-import com.aniket.newproject.model.Story;
+import com.aniket.newproject.dto.StorySummary;
 import com.aniket.newproject.model.User;
 import com.aniket.newproject.service.SearchService;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +17,7 @@ public class SearchController {
     private final SearchService searchService;
 
     @GetMapping("/stories/search")
-    public ResponseEntity<List<Story>> searchStories(@RequestParam(required = false) String search) {
+    public ResponseEntity<List<StorySummary>> searchStories(@RequestParam(required = false) String search) {
         if (search != null && !search.trim().isEmpty()) {
             return ResponseEntity.ok(searchService.searchStories(search.trim()));
         }
@@ -1,6 +1,11 @@
 package com.aniket.newproject.controller;
 
-import com.aniket.newproject.dto.DashboardData;
+import com.aniket.newproject.config.AcceptEncoding;
+import com.aniket.newproject.config.HttpCachePolicy;
+import com.aniket.newproject.dto.CursorSlice;
+import com.aniket.newproject.dto.StoryStamp;
+import com.aniket.newproject.dto.StorySummary;
+import com.aniket.newproject.dto.StoryViewerState;
 import com.aniket.newproject.model.*;
 import com.aniket.newproject.service.*;
 import com.aniket.newproject.dto.StoryRequest;
@@ -9,8 +14,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,42 +34,80 @@ public class StoryController {
     private final StoryService storyService;
     private final UserService userService;
     private final GenreService genreService;
+    private final DashboardCache dashboardCache;
+    private final HttpCachePolicy cachePolicy;
+    private final ViewerStateService viewerStateService;
+
+    private static final int MAX_BROWSE_SIZE = 100;
 
     @GetMapping
-    public ResponseEntity<Page<Story>> getAllStories(
+    public ResponseEntity<Page<StorySummary>> getAllStories(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "updatedAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir
     ) {
+        String property = sortProperty(sortBy);
         Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+                ? Sort.by(property).descending()
+                : Sort.by(property).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
         return ResponseEntity.ok(storyService.getAllStoriesPaginated(pageable));
     }
 
+    // Cursor-paginated browsing; sortBy is one of updatedAt, ratingAvg, likeCount, readCount, hot
+    @GetMapping("/browse")
+    public ResponseEntity<CursorSlice<StorySummary>> browseStories(
+            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return browse(null, sortBy, sortDir, cursor, size);
+    }
+
     @GetMapping("/trending")
-    public ResponseEntity<List<Story>> getTrendingStories(
+    public ResponseEntity<List<StorySummary>> getTrendingStories(
             @RequestParam(defaultValue = "6") int limit
     ) {
         return ResponseEntity.ok(storyService.getTrendingStories(limit));
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<Story>> getRecentStories(
+    public ResponseEntity<List<StorySummary>> getRecentStories(
             @RequestParam(defaultValue = "8") int limit
     ) {
         return ResponseEntity.ok(storyService.getRecentStories(limit));
     }
 
+    // Pre-serialized DashboardData; a matching If-None-Match never reaches the database
     @GetMapping("/dashboard")
-    public ResponseEntity<DashboardData> getDashboardData() {
-        DashboardData data = new DashboardData();
-        data.setTrending(storyService.getTrendingStories(6));
-        data.setRecent(storyService.getRecentStories(8));
-        return ResponseEntity.ok(data);
+    public ResponseEntity<byte[]> getDashboardData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        DashboardCache.Snapshot snapshot = dashboardCache.get();
+        boolean gzip = AcceptEncoding.accepts(acceptEncoding, "gzip");
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        boolean notModified = snapshot.matches(ifNoneMatch);
+
+        ResponseEntity.BodyBuilder response = notModified
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                : ResponseEntity.ok();
+        response.eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? snapshot.gzip() : snapshot.json());
     }
 
     @PostMapping
@@ -83,17 +131,45 @@ public class StoryController {
     }
 
     @GetMapping("/genre/{genreName}")
-    public ResponseEntity<Page<Story>> getByGenre(
+    public ResponseEntity<Page<StorySummary>> getByGenre(
             @PathVariable String genreName,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "updatedAt") String sortBy
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("updatedAt").descending());
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.desc(sortProperty(sortBy)), Sort.Order.desc("id")));
         return ResponseEntity.ok(storyService.getStoriesByGenrePaginated(genreName, pageable));
     }
 
+    @GetMapping("/genre/{genreName}/browse")
+    public ResponseEntity<CursorSlice<StorySummary>> browseByGenre(
+            @PathVariable String genreName,
+            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return browse(genreName, sortBy, sortDir, cursor, size);
+    }
+
+    private ResponseEntity<CursorSlice<StorySummary>> browse(String genreName, String sortBy, String sortDir,
+                                                             String cursor, int size) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_BROWSE_SIZE));
+            return ResponseEntity.ok(storyService.browseStories(genreName, sortProperty(sortBy), sortDir, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // "hot" is the public name for the decayed activity score
+    private static String sortProperty(String sortBy) {
+        return "hot".equalsIgnoreCase(sortBy) ? "hotScore" : sortBy;
+    }
+
     @GetMapping("/genre/{genreName}/trending")
-    public ResponseEntity<List<Story>> getTrendingStoriesByGenre(
+    public ResponseEntity<List<StorySummary>> getTrendingStoriesByGenre(
             @PathVariable String genreName,
             @RequestParam(defaultValue = "8") int limit,
             @RequestParam(defaultValue = "0") int page
@@ -102,7 +178,7 @@ public class StoryController {
     }
 
     @GetMapping("/genre/{genreName}/popular")
-    public ResponseEntity<List<Story>> getPopularStoriesByGenre(
+    public ResponseEntity<List<StorySummary>> getPopularStoriesByGenre(
             @PathVariable String genreName,
             @RequestParam(defaultValue = "8") int limit,
             @RequestParam(defaultValue = "0") int page
@@ -111,12 +187,31 @@ public class StoryController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Story>> getByUser(@PathVariable UUID userId) {
+    public ResponseEntity<List<StorySummary>> getByUser(@PathVariable UUID userId) {
         return ResponseEntity.ok(storyService.getStoriesByUser(userId));
     }
 
+    // Per-user state for a page of story cards in one call: ?userId=...&ids=a,b,c
+    @GetMapping("/viewer-state")
+    public ResponseEntity<List<StoryViewerState>> getViewerState(
+            @RequestParam UUID userId,
+            @RequestParam List<UUID> ids) {
+        try {
+            return ResponseEntity.ok(viewerStateService.getViewerState(userId, ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Revalidation costs one stamp query; the story and its chapters are only loaded on a miss
     @GetMapping("/{storyId}")
-    public ResponseEntity<Story> getStory(@PathVariable UUID storyId) {
-        return ResponseEntity.ok(storyService.getStoryById(storyId));
+    public ResponseEntity<Story> getStory(@PathVariable UUID storyId, WebRequest request) {
+        StoryStamp stamp = storyService.getStoryStamp(storyId);
+        if (request.checkNotModified(stamp.etag(), stamp.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cachePolicy.story())
+                .body(storyService.getStoryById(storyId));
     }
 }
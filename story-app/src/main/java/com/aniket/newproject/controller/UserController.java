@@ -4,22 +4,28 @@ import com.aniket.newproject.dto.JwtResponse;
 import com.aniket.newproject.dto.LoginRequest;
 import com.aniket.newproject.dto.RegisterRequest;
 import com.aniket.newproject.config.JwtUtils;
+import com.aniket.newproject.config.PasswordHashingExecutor;
 import com.aniket.newproject.model.Like;
 import com.aniket.newproject.model.Read;
 import com.aniket.newproject.model.Story;
 import com.aniket.newproject.model.User;
+import com.aniket.newproject.model.UserPrincipal;
+import com.aniket.newproject.service.DuplicateUserException;
 import com.aniket.newproject.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/users")
@@ -35,6 +41,9 @@ public class UserController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @GetMapping("/id/{userId}")
     public ResponseEntity<User> getByUserId(@PathVariable UUID userId) {
         return ResponseEntity.ok(userService.findById(userId));
@@ -47,7 +56,11 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        return onHashingPool(() -> authenticate(loginRequest));
+    }
+
+    private ResponseEntity<?> authenticate(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -56,10 +69,10 @@ public class UserController {
                     )
             );
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtils.generateJwtToken(userDetails);
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            String jwt = jwtUtils.generateJwtToken(userPrincipal);
 
-            User user = userService.findByUsername(loginRequest.getUsername());
+            User user = userPrincipal.getUser();
 
             return ResponseEntity.ok(new JwtResponse(jwt, user));
         } catch (Exception e) {
@@ -69,38 +82,43 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
-        try {
-            if (userService.existsByUsername(registerRequest.getUsername())) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Username is already taken!"));
-            }
-
-            if (userService.existsByEmail(registerRequest.getEmail())) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Email is already in use!"));
-            }
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest registerRequest) {
+        return onHashingPool(() -> createAccount(registerRequest));
+    }
 
-            // Create new user
+    private ResponseEntity<?> createAccount(RegisterRequest registerRequest) {
+        try {
+            // Create new user; duplicates are rejected by the insert itself
             User user = userService.createUser(registerRequest);
 
-            // Authenticate and generate JWT
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            registerRequest.getUsername(),
-                            registerRequest.getPassword()
-                    )
-            );
-
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String jwt = jwtUtils.generateJwtToken(userDetails);
+            // Issue the JWT from the new user directly, no second authenticate/hash
+            String jwt = jwtUtils.generateJwtToken(new UserPrincipal(user));
 
             return ResponseEntity.ok(new JwtResponse(jwt, user));
+        } catch (DuplicateUserException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("error", "Registration failed: " + e.getMessage()));
         }
     }
+
+    // BCrypt runs on the bounded hashing pool; when it is saturated we answer 503 right away.
+    // Any other failure propagates to the usual error handling.
+    private CompletableFuture<ResponseEntity<?>> onHashingPool(Supplier<ResponseEntity<?>> handler) {
+        return passwordHashingExecutor.submit(handler)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof RejectedExecutionException)) {
+                        throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                    }
+                    return ResponseEntity.status(503)
+                            .header("Retry-After", "1")
+                            .body(Map.of("error", "Server is busy, please try again shortly"));
+                });
+    }
+
     @GetMapping("/{username}")
     public ResponseEntity<User> getByUsername(@PathVariable String username) {
         return ResponseEntity.ok(userService.findByUsername(username));
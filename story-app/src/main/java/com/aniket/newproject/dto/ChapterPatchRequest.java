@@ -0,0 +1,18 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterPatchRequest {
+    // contentHash of the revision the ops were computed against
+    private String baseHash;
+    private List<TextOp> ops;
+    // Optional; the title is left alone when null
+    private String title;
+}
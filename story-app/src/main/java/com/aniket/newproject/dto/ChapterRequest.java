@@ -10,4 +10,6 @@ import lombok.NoArgsConstructor;
 public class ChapterRequest {
     private String title;
     private String content;
+    // 1-based slot to insert at on create; null appends
+    private Integer position;
 }
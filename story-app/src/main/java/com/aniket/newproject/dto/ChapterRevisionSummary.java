@@ -0,0 +1,19 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterRevisionSummary {
+    private int revisionNumber;
+    private boolean snapshot;
+    private String contentHash;
+    // Stored bytes: the gzip'd text for snapshots, the encoded ops for deltas
+    private int dataSize;
+    private LocalDateTime createdAt;
+}
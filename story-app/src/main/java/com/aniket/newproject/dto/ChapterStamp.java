@@ -0,0 +1,55 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+// Just enough of a chapter row to answer a conditional GET without loading the entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterStamp {
+    private UUID id;
+    private int number;
+    private LocalDateTime updatedAt;
+    // Names the stored body; null for chapters from before revisions were kept
+    private Integer revision;
+    // Bumped by every chapter create/move/delete, so renumbering changes the tag too
+    private LocalDateTime storyUpdatedAt;
+    private int lastNumber;
+    // Served as X-Comment-Count, so a new comment has to change the tag as well
+    private long commentCount;
+
+    public boolean hasNext() {
+        return number < lastNumber;
+    }
+
+    // The chapter as served with its story embedded (minus the story's counters) and its comment count
+    public String etag() {
+        return "\"c-" + id + "-" + number + "-" + millis(updatedAt) + "-" + millis(storyUpdatedAt)
+                + "-" + commentCount + "\"";
+    }
+
+    // The body alone, by revision: a revision's stored bytes never change once committed.
+    // Each Content-Encoding of it gets its own tag
+    public String contentEtag(String encoding) {
+        String version = revision == null ? String.valueOf(millis(updatedAt)) : "r" + revision;
+        return "\"cc-" + id + "-" + version + (encoding == null ? "" : "-" + encoding) + "\"";
+    }
+
+    public long contentLastModified() {
+        return millis(updatedAt);
+    }
+
+    public long lastModified() {
+        return Math.max(millis(updatedAt), millis(storyUpdatedAt));
+    }
+
+    static long millis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,21 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One row of a story's table of contents; built by a projection, never from Chapter entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterTocEntry {
+    private UUID id;
+    private int number;
+    private String title;
+    private LocalDateTime createdAt;
+    private Integer wordCount;
+    private long commentCount;
+}
@@ -0,0 +1,13 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentLikeState {
+    private boolean liked;
+    private long likeCount;
+}
@@ -0,0 +1,30 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// One comment in a thread, assembled from path-ordered rows rather than Comment entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentNode {
+    private UUID id;
+    private UUID parentId;
+    private int depth;
+    private UUID userId;
+    private String username;
+    private String content;
+    private LocalDateTime createdAt;
+    private int likeCount;
+    // Direct replies, whether or not they are included below
+    private int replyCount;
+    private List<CommentNode> replies = new ArrayList<>();
+    // Set when the thread has more replies than were included; pass to .../comments/{id}/replies
+    private String repliesCursor;
+}
@@ -0,0 +1,55 @@
+package com.aniket.newproject.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+// Orders for top-level comments; id is always the tie-breaker
+public enum CommentSortKey {
+    NEWEST("created_at", true, CommentNode::getCreatedAt, LocalDateTime::parse),
+    OLDEST("created_at", false, CommentNode::getCreatedAt, LocalDateTime::parse),
+    TOP("like_count", true, CommentNode::getLikeCount, Integer::parseInt);
+
+    private final String column;
+    private final boolean descending;
+    private final Function<CommentNode, Object> extractor;
+    private final Function<String, Object> parser;
+
+    CommentSortKey(String column, boolean descending,
+                   Function<CommentNode, Object> extractor, Function<String, Object> parser) {
+        this.column = column;
+        this.descending = descending;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Object valueOf(CommentNode comment) {
+        return extractor.apply(comment);
+    }
+
+    // Bad cursor values surface as IllegalArgumentException, which the controllers answer with 400
+    public Object parseValue(String value) {
+        try {
+            return parser.apply(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + value, e);
+        }
+    }
+
+    public static CommentSortKey fromParam(String sort) {
+        for (CommentSortKey key : values()) {
+            if (key.name().equalsIgnoreCase(sort)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported comment sort: " + sort);
+    }
+}
@@ -1,10 +1,14 @@
 package com.aniket.newproject.dto;
 
 import com.aniket.newproject.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 public class JwtResponse {
     private String token;
     private String type = "Bearer";
+
+    // Built off the request thread, so the lazy works list can't be loaded
+    @JsonIgnoreProperties("works")
     private User user;
 
     public JwtResponse(String accessToken, User user) {
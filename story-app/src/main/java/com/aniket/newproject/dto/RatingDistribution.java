@@ -0,0 +1,15 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// histogram[i] is the number of (i + 1)-star ratings
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDistribution {
+    private double average;
+    private long count;
+    private long[] histogram;
+}
@@ -0,0 +1,50 @@
+package com.aniket.newproject.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+// Sort keys that support keyset pagination; id is always the tie-breaker
+public enum StorySortKey {
+    UPDATED_AT("updatedAt", StorySummary::getUpdatedAt, LocalDateTime::parse),
+    RATING_AVG("ratingAvg", StorySummary::getRatingAvg, Float::parseFloat),
+    LIKE_COUNT("likeCount", StorySummary::getLikeCount, Integer::parseInt),
+    READ_COUNT("readCount", StorySummary::getReadCount, Integer::parseInt),
+    HOT_SCORE("hotScore", StorySummary::getHotScore, Double::parseDouble);
+
+    private final String property;
+    private final Function<StorySummary, Object> extractor;
+    private final Function<String, Object> parser;
+
+    StorySortKey(String property, Function<StorySummary, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(StorySummary story) {
+        return extractor.apply(story);
+    }
+
+    // Bad cursor values surface as IllegalArgumentException, which the controllers answer with 400
+    public Object parseValue(String value) {
+        try {
+            return parser.apply(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + value, e);
+        }
+    }
+
+    public static StorySortKey fromProperty(String property) {
+        for (StorySortKey key : values()) {
+            if (key.property.equals(property)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort key: " + property);
+    }
+}
@@ -0,0 +1,29 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Story fields that change what GET /stories/{id} returns: updatedAt covers edits and chapter
+// changes, the counters move without touching updatedAt
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoryStamp {
+    private LocalDateTime updatedAt;
+    private int likeCount;
+    private float ratingAvg;
+    private int readCount;
+    private double hotScore;
+
+    public String etag() {
+        return "\"s-" + ChapterStamp.millis(updatedAt) + "-" + likeCount + "-" + ratingAvg + "-" + readCount
+                + "-" + Long.toHexString(Double.doubleToLongBits(hotScore)) + "\"";
+    }
+
+    public long lastModified() {
+        return ChapterStamp.millis(updatedAt);
+    }
+}
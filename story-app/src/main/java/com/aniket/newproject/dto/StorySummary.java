@@ -0,0 +1,65 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Story card data for list endpoints; never touches chapters beyond a count
+@Data
+@NoArgsConstructor
+public class StorySummary {
+    private UUID id;
+    private String title;
+    private String description;
+    private String status;
+
+    private int likeCount;
+    private float ratingAvg;
+    private int readCount;
+    private double hotScore;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    private AuthorRef author;
+    private GenreRef genre;
+    private long chapterCount;
+
+    // Used by the constructor projections in StoryRepository
+    public StorySummary(UUID id, String title, String description, String status,
+                        int likeCount, float ratingAvg, int readCount, double hotScore,
+                        LocalDateTime createdAt, LocalDateTime updatedAt,
+                        UUID authorId, String authorUsername, String genreName, long chapterCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.likeCount = likeCount;
+        this.ratingAvg = ratingAvg;
+        this.readCount = readCount;
+        this.hotScore = hotScore;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.author = authorId != null ? new AuthorRef(authorId, authorUsername) : null;
+        this.genre = genreName != null ? new GenreRef(genreName) : null;
+        this.chapterCount = chapterCount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AuthorRef {
+        private UUID id;
+        private String username;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GenreRef {
+        private String name;
+    }
+}
@@ -0,0 +1,21 @@
+package com.aniket.newproject.dto;
+
+import com.aniket.newproject.model.ReadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// What one user has done with one story; rating and the reading fields are null when absent
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoryViewerState {
+    private UUID storyId;
+    private boolean liked;
+    private Integer rating;
+    private ReadStatus readStatus;
+    private Integer currentChapter;
+    private Integer progress;
+}
@@ -0,0 +1,28 @@
+package com.aniket.newproject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One step of a text edit, applied left to right: keep `retain` chars, drop `delete` chars, or add `insert`.
+// Exactly one field is set. Anything after the last op is kept as-is.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextOp {
+    private Integer retain;
+    private Integer delete;
+    private String insert;
+
+    public static TextOp retain(int count) {
+        return new TextOp(count, null, null);
+    }
+
+    public static TextOp delete(int count) {
+        return new TextOp(null, count, null);
+    }
+
+    public static TextOp insert(String text) {
+        return new TextOp(null, null, text);
+    }
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_chapter_story_number", columnList = "story_id, number"))
 public class Chapter {
     @Id @GeneratedValue
     private UUID id;
@@ -17,12 +18,27 @@ public class Chapter {
     private String title;
     private int number;
 
-    @Lob
-    private String content;
+    // Body lives in ChapterContentStore; null until written (or migrated from the old content column)
+    private Long contentLength;
+    private Integer wordCount;
+
+    // Latest ChapterRevision; null for chapters written before revisions were kept
+    private Integer revision;
+    private String contentHash;
 
     private LocalDateTime createdAt;
+    // Null for chapters from before it was tracked; stamps fall back to createdAt
+    private LocalDateTime updatedAt;
 
+    // Ignore 'chapters' inside Story to prevent recursion. The counters move on every like and read
+    // flush; GET /stories/{id} serves them, so they stay out of the chapter's ETag and prefetch cache
     @ManyToOne
-    @JsonIgnoreProperties("chapters") // Ignore 'chapters' inside Story to prevent recursion
+    @JsonIgnoreProperties({"chapters", "likeCount", "ratingAvg", "readCount", "hotScore"})
     private Story story;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
 }
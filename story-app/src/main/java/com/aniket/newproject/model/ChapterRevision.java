@@ -0,0 +1,40 @@
+package com.aniket.newproject.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chapter_revision",
+        columnNames = {"chapter_id", "revisionNumber"}))
+public class ChapterRevision {
+    @Id @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnore
+    private Chapter chapter;
+
+    private int revisionNumber;
+
+    // Snapshots hold the full gzip'd text; other revisions hold edit ops against the previous one
+    private boolean snapshot;
+
+    @JsonIgnore
+    @Column(columnDefinition = "bytea")
+    private byte[] data;
+
+    private int dataSize;
+    private String contentHash;
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
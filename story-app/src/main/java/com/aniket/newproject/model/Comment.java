@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -12,6 +13,14 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_comment_chapter", columnList = "chapter_id"),
+        // One thread, or one comment's subtree, in path order
+        @Index(name = "idx_comment_root_path", columnList = "rootId, path"),
+        // Keyset pages of top-level comments: newest/oldest and top
+        @Index(name = "idx_comment_chapter_created", columnList = "chapter_id, parent_comment_id, createdAt, id"),
+        @Index(name = "idx_comment_chapter_likes", columnList = "chapter_id, parent_comment_id, likeCount, id")
+})
 public class Comment {
     @Id
     @GeneratedValue
@@ -41,6 +50,27 @@ public class Comment {
 
     private int likeCount = 0;
 
+    // Direct replies; incremented in place by replyToComment. Null only until CommentPathMigration runs.
+    private Integer replyCount;
+
+    // Materialized path: one PATH_SEGMENT per ancestor then this comment, so ORDER BY path
+    // is depth-first, oldest first at every level. Null only until CommentPathMigration runs.
+    // Byte-order collation: subtree ranges ("path." to "path/") depend on '.' and '/' sorting as bytes.
+    // Unbounded, since every level adds 21 characters and replies may nest to any depth
+    @Column(columnDefinition = "text COLLATE \"C\"")
+    private String path;
+    private Integer depth;
+    private UUID rootId;
+
+    public static final char PATH_SEPARATOR = '.';
+
+    // Fixed-width so string order matches creation order: 12 hex digits of epoch millis, then
+    // 8 of the id to keep siblings created in the same millisecond apart
+    public static String pathSegment(UUID id, LocalDateTime createdAt) {
+        long millis = createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return String.format("%012x%s", millis, id.toString().substring(0, 8));
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,24 @@
+package com.aniket.newproject.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Written with INSERT ... ON CONFLICT by CommentLikeService; the primary key makes likes idempotent
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "comment_like")
+public class CommentLike {
+    @EmbeddedId
+    private CommentLikeId id;
+
+    @ManyToOne(fetch = FetchType.LAZY) @MapsId("userId")
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY) @MapsId("commentId")
+    private Comment comment;
+
+    private LocalDateTime likedAt;
+}
@@ -0,0 +1,18 @@
+package com.aniket.newproject.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentLikeId implements Serializable {
+    private UUID userId;
+    private UUID commentId;
+}
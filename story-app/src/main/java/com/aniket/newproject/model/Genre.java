@@ -2,11 +2,18 @@ package com.aniket.newproject.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import lombok.*;
 import java.util.List;
 import java.util.UUID;
 
+// Reference data nothing updates, which is what lets it sit in a READ_ONLY cache region
 @Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "genre")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
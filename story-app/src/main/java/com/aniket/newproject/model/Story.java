@@ -2,15 +2,30 @@ package com.aniket.newproject.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "story")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        // Keyset pagination: (sort key, id) per supported sort
+        @Index(name = "idx_story_published_updated", columnList = "isPublished, updatedAt, id"),
+        @Index(name = "idx_story_published_rating", columnList = "isPublished, ratingAvg, id"),
+        @Index(name = "idx_story_published_likes", columnList = "isPublished, likeCount, id"),
+        @Index(name = "idx_story_published_reads", columnList = "isPublished, readCount, id"),
+        @Index(name = "idx_story_genre_updated", columnList = "genre_id, isPublished, updatedAt, id"),
+        // sort=hot, maintained by HotScoreScheduler
+        @Index(name = "idx_story_published_hot", columnList = "isPublished, hotScore, id"),
+        @Index(name = "idx_story_genre_hot", columnList = "genre_id, isPublished, hotScore, id")
+})
 public class Story {
     @Id
     @GeneratedValue
@@ -21,10 +36,18 @@ public class Story {
     private boolean isPublished;
     private String status;
 
+    // Counters are only moved by batched SQL increments, so entity saves must not write them back
+    @Column(updatable = false)
     private int likeCount = 0;
+    @Column(updatable = false)
     private float ratingAvg = 0;
+    @Column(updatable = false)
     private int readCount = 0;
 
+    // Decayed recent activity, recomputed in the background; not touched by entity saves
+    @Column(insertable = false, updatable = false, columnDefinition = "double precision not null default 0")
+    private double hotScore = 0;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -0,0 +1,32 @@
+package com.aniket.newproject.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+// Running rating totals per story, kept by RatingService with one upsert per rating;
+// stars1..stars5 count how many ratings currently have each value
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "story_rating_aggregate")
+public class StoryRatingAggregate {
+    @Id
+    private UUID storyId;
+
+    private long ratingSum;
+    private long ratingCount;
+
+    @Column(name = "stars_1")
+    private long stars1;
+    @Column(name = "stars_2")
+    private long stars2;
+    @Column(name = "stars_3")
+    private long stars3;
+    @Column(name = "stars_4")
+    private long stars4;
+    @Column(name = "stars_5")
+    private long stars5;
+}
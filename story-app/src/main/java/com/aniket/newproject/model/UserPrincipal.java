@@ -3,6 +3,7 @@ package com.aniket.newproject.model;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,26 +19,49 @@ public class UserPrincipal implements UserDetails{
 
     private User user;
 
+    private final UUID id;
+    private final String username;
+    private final Collection<? extends GrantedAuthority> authorities;
+
     public UserPrincipal(User user) {
         this.user=user;
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.authorities = Collections.singleton(new SimpleGrantedAuthority("USER"));
+    }
+
+    // Built straight from verified JWT claims, no User row behind it
+    public UserPrincipal(UUID id, String username, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = authorities;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    // Null for claim-only principals
+    public User getUser() {
+        return user;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
 
-        return Collections.singleton(new SimpleGrantedAuthority("USER"));
+        return authorities;
     }
 
     @Override
     public String getPassword() {
 
-        return user.getPassword();
+        return user != null ? user.getPassword() : null;
     }
 
     @Override
     public String getUsername() {
 
-        return user.getUsername();
+        return username;
     }
 
     @Override
@@ -1,8 +1,15 @@
 package com.aniket.newproject.repo;
 
+import com.aniket.newproject.dto.ChapterStamp;
+import com.aniket.newproject.dto.ChapterTocEntry;
 import com.aniket.newproject.model.Chapter;
 import com.aniket.newproject.model.Story;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,6 +18,35 @@ import java.util.Optional;
 import java.util.UUID;
 
 public interface ChapterRepository extends JpaRepository<Chapter, UUID> {
+
+    String TOC_SELECT = "SELECT new com.aniket.newproject.dto.ChapterTocEntry(" +
+            "c.id, c.number, c.title, c.createdAt, c.wordCount, " +
+            "(SELECT COUNT(cm) FROM Comment cm WHERE cm.chapter = c)) " +
+            "FROM Chapter c WHERE c.story.id = :storyId ";
+
+    @Query(TOC_SELECT + "ORDER BY c.number")
+    List<ChapterTocEntry> findTocByStoryId(@Param("storyId") UUID storyId);
+
+    @Query(value = TOC_SELECT,
+            countQuery = "SELECT COUNT(c) FROM Chapter c WHERE c.story.id = :storyId")
+    Page<ChapterTocEntry> findTocPageByStoryId(@Param("storyId") UUID storyId, Pageable pageable);
+
+    String STAMP_SELECT = "SELECT new com.aniket.newproject.dto.ChapterStamp(" +
+            "c.id, c.number, COALESCE(c.updatedAt, c.createdAt), c.revision, c.story.updatedAt, " +
+            "(SELECT MAX(n.number) FROM Chapter n WHERE n.story = c.story), " +
+            "(SELECT COUNT(m) FROM Comment m WHERE m.chapter = c)) FROM Chapter c ";
+
+    @Query(STAMP_SELECT + "WHERE c.story.id = :storyId AND c.number = :number")
+    Optional<ChapterStamp> findStampByStoryIdAndNumber(@Param("storyId") UUID storyId, @Param("number") int number);
+
+    @Query(STAMP_SELECT + "WHERE c.id = :chapterId")
+    Optional<ChapterStamp> findStampById(@Param("chapterId") UUID chapterId);
+
+    // Serializes edits of one chapter so a patch always applies to the revision it was computed against
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Chapter c WHERE c.id = :chapterId")
+    Optional<Chapter> findByIdForUpdate(@Param("chapterId") UUID chapterId);
+
     List<Chapter> findByStory(Story story);
 
     List<Chapter> findByStoryOrderByNumber(Story story);
@@ -23,4 +59,12 @@ public interface ChapterRepository extends JpaRepository<Chapter, UUID> {
 
     @Query("SELECT MAX(c.number) FROM Chapter c WHERE c.story.id = :storyId")
     Optional<Integer> findMaxChapterNumberByStoryId(@Param("storyId") UUID storyId);
+
+    // Renumbers a contiguous block in one statement; callers hold the story lock.
+    // The unique (story_id, number) constraint is deferred to commit, so the overlap mid-UPDATE is fine.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Chapter c SET c.number = c.number + :delta " +
+            "WHERE c.story.id = :storyId AND c.number BETWEEN :fromNumber AND :toNumber")
+    int shiftNumbers(@Param("storyId") UUID storyId, @Param("fromNumber") int fromNumber,
+                     @Param("toNumber") int toNumber, @Param("delta") int delta);
 }
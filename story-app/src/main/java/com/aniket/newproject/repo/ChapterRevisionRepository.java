@@ -0,0 +1,31 @@
+package com.aniket.newproject.repo;
+
+import com.aniket.newproject.dto.ChapterRevisionSummary;
+import com.aniket.newproject.model.ChapterRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ChapterRevisionRepository extends JpaRepository<ChapterRevision, UUID> {
+
+    @Query("SELECT MAX(r.revisionNumber) FROM ChapterRevision r " +
+            "WHERE r.chapter.id = :chapterId AND r.snapshot = true AND r.revisionNumber <= :revision")
+    Optional<Integer> findSnapshotAtOrBefore(@Param("chapterId") UUID chapterId, @Param("revision") int revision);
+
+    List<ChapterRevision> findByChapterIdAndRevisionNumberBetweenOrderByRevisionNumber(
+            UUID chapterId, int fromRevision, int toRevision);
+
+    @Query("SELECT new com.aniket.newproject.dto.ChapterRevisionSummary(" +
+            "r.revisionNumber, r.snapshot, r.contentHash, r.dataSize, r.createdAt) " +
+            "FROM ChapterRevision r WHERE r.chapter.id = :chapterId ORDER BY r.revisionNumber DESC")
+    List<ChapterRevisionSummary> findSummariesByChapterId(@Param("chapterId") UUID chapterId);
+
+    @Modifying
+    @Query("DELETE FROM ChapterRevision r WHERE r.chapter.id = :chapterId")
+    int deleteByChapterId(@Param("chapterId") UUID chapterId);
+}
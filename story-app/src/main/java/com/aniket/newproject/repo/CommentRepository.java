@@ -3,6 +3,9 @@ package com.aniket.newproject.repo;
 import com.aniket.newproject.model.Comment;
 import com.aniket.newproject.model.Chapter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,4 +13,8 @@ import java.util.UUID;
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
     List<Comment> findByChapter(Chapter chapter);
     List<Comment> findByChapterAndParentCommentIsNullOrderByCreatedAtAsc(Chapter chapter);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = COALESCE(c.replyCount, 0) + 1 WHERE c.id = :commentId")
+    int incrementReplyCount(@Param("commentId") UUID commentId);
 }
@@ -1,11 +1,16 @@
 package com.aniket.newproject.repo;
 
 import com.aniket.newproject.model.Genre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface GenreRepository extends JpaRepository<Genre, UUID> {
+    // Resolved on most genre pages; the cached id is then served from the Genre entity region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Genre> findByName(String name);
 }
@@ -3,11 +3,17 @@ package com.aniket.newproject.repo;
 import com.aniket.newproject.model.Like;
 import com.aniket.newproject.model.LikeId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface LikeRepository extends JpaRepository<Like, LikeId> {
     List<Like> findByIdUserId(UUID userId);
     boolean existsByUserIdAndStoryId(UUID userId, UUID storyId);
+
+    @Query("SELECT l.id.storyId FROM Like l WHERE l.id.userId = :userId AND l.id.storyId IN :storyIds")
+    List<UUID> findLikedStoryIds(@Param("userId") UUID userId, @Param("storyIds") Collection<UUID> storyIds);
 }
@@ -2,14 +2,19 @@ package com.aniket.newproject.repo;
 
 import com.aniket.newproject.model.Rating;
 import com.aniket.newproject.model.RatingId;
-import com.aniket.newproject.model.Story;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RatingRepository extends JpaRepository<Rating, RatingId> {
-    List<Rating> findByStory(Story story);
     Optional<Rating> findByUserIdAndStoryId(UUID userId, UUID storyId);
+
+    // [storyId, rating] rows, without loading the Rating's user and story
+    @Query("SELECT r.id.storyId, r.rating FROM Rating r WHERE r.id.userId = :userId AND r.id.storyId IN :storyIds")
+    List<Object[]> findRatingsByStoryIds(@Param("userId") UUID userId, @Param("storyIds") Collection<UUID> storyIds);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +19,9 @@ public interface ReadRepository extends JpaRepository<Read, ReadId> {
     List<Read> findByUserIdOrderByLastReadAtDesc(@Param("userId") UUID userId);
     @Query("SELECT r FROM Read r WHERE r.user.id = :userId AND r.status = :status ORDER BY r.lastReadAt DESC")
     List<Read> findByUserIdAndStatusOrderByLastReadAtDesc(@Param("userId") UUID userId, @Param("status") ReadStatus status);
+
+    // [storyId, status, currentChapter, progress] rows, without loading the Read's associations
+    @Query("SELECT r.id.storyId, r.status, r.currentChapter, r.progress FROM Read r " +
+            "WHERE r.id.userId = :userId AND r.id.storyId IN :storyIds")
+    List<Object[]> findStatesByStoryIds(@Param("userId") UUID userId, @Param("storyIds") Collection<UUID> storyIds);
 }
@@ -0,0 +1,9 @@
+package com.aniket.newproject.repo;
+
+import com.aniket.newproject.model.StoryRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface StoryRatingAggregateRepository extends JpaRepository<StoryRatingAggregate, UUID> {
+}
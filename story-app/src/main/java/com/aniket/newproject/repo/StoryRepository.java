@@ -1,18 +1,84 @@
 package com.aniket.newproject.repo;
 
+import com.aniket.newproject.dto.StoryStamp;
+import com.aniket.newproject.dto.StorySummary;
 import com.aniket.newproject.model.Genre;
 import com.aniket.newproject.model.Story;
 import com.aniket.newproject.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface StoryRepository extends JpaRepository<Story, UUID> {
+public interface StoryRepository extends JpaRepository<Story, UUID>, StoryRepositoryCustom {
+
+    // Summary projection for list endpoints: scalar columns plus a chapter count, no chapter rows
+    String SUMMARY_SELECT = "SELECT new com.aniket.newproject.dto.StorySummary(" +
+            "s.id, s.title, s.description, s.status, s.likeCount, s.ratingAvg, s.readCount, s.hotScore, " +
+            "s.createdAt, s.updatedAt, a.id, a.username, g.name, " +
+            "(SELECT COUNT(c) FROM Chapter c WHERE c.story = s)) " +
+            "FROM Story s LEFT JOIN s.author a LEFT JOIN s.genre g ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE s.isPublished = true",
+            countQuery = "SELECT COUNT(s) FROM Story s WHERE s.isPublished = true")
+    Page<StorySummary> findPublishedSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.isPublished = true")
+    List<StorySummary> findPublishedSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE s.isPublished = true AND g.name = :genreName",
+            countQuery = "SELECT COUNT(s) FROM Story s WHERE s.isPublished = true AND s.genre.name = :genreName")
+    Page<StorySummary> findPublishedSummaryPageByGenre(@Param("genreName") String genreName, Pageable pageable);
+
+    @Query("SELECT new com.aniket.newproject.dto.StoryStamp(" +
+            "s.updatedAt, s.likeCount, s.ratingAvg, s.readCount, s.hotScore) FROM Story s WHERE s.id = :storyId")
+    Optional<StoryStamp> findStampById(@Param("storyId") UUID storyId);
+
+    // Serializes chapter numbering changes for one story
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Story s WHERE s.id = :storyId")
+    Optional<Story> findByIdForUpdate(@Param("storyId") UUID storyId);
+
+    @Query("SELECT s.id FROM Story s WHERE s.isPublished = true")
+    List<UUID> findPublishedIds();
+
+    // Query-cached: fallback for TrendingRankingService and pages past its top-N
+    @Query(SUMMARY_SELECT + "WHERE s.isPublished = true AND s.ratingAvg > 0 " +
+            "ORDER BY s.ratingAvg DESC, s.likeCount DESC, s.readCount DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<StorySummary> findTrendingSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.isPublished = true AND g.name = :genreName AND s.ratingAvg > 0 " +
+            "ORDER BY s.ratingAvg DESC, s.likeCount DESC, s.readCount DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<StorySummary> findTrendingSummariesByGenre(@Param("genreName") String genreName, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.isPublished = true AND g.name = :genreName " +
+            "ORDER BY s.readCount DESC, s.likeCount DESC, s.ratingAvg DESC")
+    List<StorySummary> findPopularSummariesByGenre(@Param("genreName") String genreName, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :authorId")
+    List<StorySummary> findSummariesByAuthorId(@Param("authorId") UUID authorId);
+
+    @Query(SUMMARY_SELECT + "WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(s.description) LIKE LOWER(CONCAT('%', :query, '%'))")
+    List<StorySummary> searchSummaries(@Param("query") String query);
+
+    @Query(SUMMARY_SELECT)
+    List<StorySummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE s.id = :storyId AND s.isPublished = true")
+    Optional<StorySummary> findPublishedSummaryById(@Param("storyId") UUID storyId);
 
     Page<Story> findByIsPublishedTrue(Pageable pageable);
 
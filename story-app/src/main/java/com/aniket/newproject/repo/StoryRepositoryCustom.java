@@ -0,0 +1,14 @@
+package com.aniket.newproject.repo;
+
+import com.aniket.newproject.dto.StorySummary;
+import com.aniket.newproject.dto.StorySortKey;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface StoryRepositoryCustom {
+
+    // Keyset page of published stories ordered by (sortKey, id); null lastId means first page
+    List<StorySummary> findSummariesAfter(String genreName, StorySortKey sortKey, boolean descending,
+                                          Object lastValue, UUID lastId, int limit);
+}
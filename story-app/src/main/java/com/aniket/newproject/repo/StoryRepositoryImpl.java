@@ -0,0 +1,47 @@
+package com.aniket.newproject.repo;
+
+import com.aniket.newproject.dto.StorySummary;
+import com.aniket.newproject.dto.StorySortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.UUID;
+
+public class StoryRepositoryImpl implements StoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StorySummary> findSummariesAfter(String genreName, StorySortKey sortKey, boolean descending,
+                                                 Object lastValue, UUID lastId, int limit) {
+        // Property names come from the StorySortKey whitelist, never from the request
+        String column = "s." + sortKey.getProperty();
+        String seek = descending ? "<" : ">";
+        String direction = descending ? "DESC" : "ASC";
+
+        StringBuilder jpql = new StringBuilder(StoryRepository.SUMMARY_SELECT)
+                .append("WHERE s.isPublished = true");
+        if (genreName != null) {
+            jpql.append(" AND g.name = :genreName");
+        }
+        if (lastId != null) {
+            jpql.append(" AND (").append(column).append(' ').append(seek).append(" :lastValue OR (")
+                    .append(column).append(" = :lastValue AND s.id ").append(seek).append(" :lastId))");
+        }
+        jpql.append(" ORDER BY ").append(column).append(' ').append(direction)
+                .append(", s.id ").append(direction);
+
+        TypedQuery<StorySummary> query = entityManager.createQuery(jpql.toString(), StorySummary.class);
+        if (genreName != null) {
+            query.setParameter("genreName", genreName);
+        }
+        if (lastId != null) {
+            query.setParameter("lastValue", lastValue);
+            query.setParameter("lastId", lastId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.aniket.newproject.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+// Moves bodies from the old chapter.content large-object column into the ChapterContentStore,
+// then fills in word counts for chapters written before they were tracked
+@Service
+public class ChapterContentMigration {
+
+    private static final int BATCH_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChapterContentStore contentStore;
+    private final ChapterService chapterService;
+
+    public ChapterContentMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   ChapterContentStore contentStore, ChapterService chapterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.contentStore = contentStore;
+        this.chapterService = chapterService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        moveLegacyContent();
+        backfillWordCounts();
+    }
+
+    private void moveLegacyContent() {
+        try {
+            if (!legacyColumnExists()) {
+                return;
+            }
+
+            int migrated = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> migrateBatch());
+                migrated += batch;
+            } while (batch == BATCH_SIZE);
+
+            if (migrated > 0) {
+                System.out.println("Moved " + migrated + " chapter bodies to the content store");
+            }
+        } catch (Exception e) {
+            System.err.println("Chapter content migration failed: " + e.getMessage());
+        }
+    }
+
+    private void backfillWordCounts() {
+        try {
+            List<Object[]> chapters = jdbcTemplate.query(
+                    "SELECT id, revision FROM chapter WHERE word_count IS NULL AND content_length IS NOT NULL",
+                    (rs, rowNum) -> new Object[]{rs.getObject("id", UUID.class), rs.getObject("revision", Integer.class)});
+            for (Object[] chapter : chapters) {
+                UUID chapterId = (UUID) chapter[0];
+                int words = ChapterService.countWords(chapterService.readContent(chapterId, (Integer) chapter[1]));
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "UPDATE chapter SET word_count = ? WHERE id = ?", words, chapterId));
+            }
+            if (!chapters.isEmpty()) {
+                System.out.println("Counted words for " + chapters.size() + " chapters");
+            }
+        } catch (Exception e) {
+            System.err.println("Chapter word count backfill failed: " + e.getMessage());
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_name = 'chapter' AND column_name = 'content'", Integer.class);
+        return columns != null && columns > 0;
+    }
+
+    private int migrateBatch() {
+        // Rows are locked so a second node running the same migration skips them
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT id, content, convert_from(lo_get(content), 'UTF8') AS body FROM chapter " +
+                        "WHERE content IS NOT NULL LIMIT ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Object[]{rs.getObject("id", UUID.class), rs.getLong("content"), rs.getString("body")},
+                BATCH_SIZE);
+
+        for (Object[] row : rows) {
+            UUID chapterId = (UUID) row[0];
+            try {
+                long length = contentStore.write(chapterId, null, (String) row[2]);
+                jdbcTemplate.update("UPDATE chapter SET content = NULL, content_length = ? WHERE id = ?", length, chapterId);
+                jdbcTemplate.queryForObject("SELECT lo_unlink(?)", Integer.class, row[1]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.aniket.newproject.service;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.UUID;
+
+// Where chapter bodies live; Chapter rows only keep metadata such as the byte length.
+// Bodies are kept compressed; lengths and ranges without "encoded" refer to the plain UTF-8 text.
+// One body per (chapter, revision), never changed once its revision commits, so the row's revision
+// says exactly which body is current. A null revision is the single body of a chapter from before
+// revisions were kept.
+public interface ChapterContentStore {
+
+    // Replaces any body stored under the same revision and returns its uncompressed length in bytes
+    long write(UUID chapterId, Integer revision, String content) throws IOException;
+
+    // Throws NoSuchFileException when nothing is stored for that revision
+    String read(UUID chapterId, Integer revision) throws IOException;
+
+    // -1 when nothing is stored for that revision
+    long length(UUID chapterId, Integer revision) throws IOException;
+
+    // Copies [position, position + count) of the plain text, decompressing as it streams
+    void transferTo(UUID chapterId, Integer revision, long position, long count, WritableByteChannel target)
+            throws IOException;
+
+    // HTTP Content-Encoding of the stored bytes
+    String encoding();
+
+    // -1 when nothing is stored for that revision
+    long encodedLength(UUID chapterId, Integer revision) throws IOException;
+
+    // Copies the stored bytes as-is, for clients that accept encoding()
+    void transferEncodedTo(UUID chapterId, Integer revision, WritableByteChannel target) throws IOException;
+
+    // Drops the bodies of earlier revisions (and the pre-revision body) once `revision` is committed
+    void deleteOlderThan(UUID chapterId, int revision) throws IOException;
+
+    // Every body of the chapter
+    void delete(UUID chapterId) throws IOException;
+}
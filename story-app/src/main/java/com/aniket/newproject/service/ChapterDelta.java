@@ -0,0 +1,121 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.TextOp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Applying, computing and (de)serializing TextOp edit scripts. Offsets are in Java chars.
+public final class ChapterDelta {
+
+    private static final byte RETAIN = 'r';
+    private static final byte DELETE = 'd';
+    private static final byte INSERT = 'i';
+
+    private ChapterDelta() {
+    }
+
+    // Throws IllegalArgumentException when the ops don't fit the text
+    public static String apply(String text, List<TextOp> ops) {
+        StringBuilder result = new StringBuilder(text.length() + 64);
+        int cursor = 0;
+        for (TextOp op : ops) {
+            if (op.getRetain() != null) {
+                int end = checkedEnd(text, cursor, op.getRetain());
+                result.append(text, cursor, end);
+                cursor = end;
+            } else if (op.getDelete() != null) {
+                cursor = checkedEnd(text, cursor, op.getDelete());
+            } else if (op.getInsert() != null) {
+                result.append(op.getInsert());
+            } else {
+                throw new IllegalArgumentException("Empty edit op");
+            }
+        }
+        return result.append(text, cursor, text.length()).toString();
+    }
+
+    // Common prefix/suffix trim: one replaced span, which is what an editor autosave usually is
+    public static List<TextOp> diff(String before, String after) {
+        int prefix = 0;
+        int max = Math.min(before.length(), after.length());
+        while (prefix < max && before.charAt(prefix) == after.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+            suffix++;
+        }
+        // Never split a surrogate pair: a lone half in an insert doesn't survive encode()'s UTF-8
+        if (prefix > 0 && Character.isHighSurrogate(before.charAt(prefix - 1))) {
+            prefix--;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(before.charAt(before.length() - suffix))) {
+            suffix--;
+        }
+
+        List<TextOp> ops = new ArrayList<>(3);
+        if (prefix > 0) {
+            ops.add(TextOp.retain(prefix));
+        }
+        if (before.length() - prefix - suffix > 0) {
+            ops.add(TextOp.delete(before.length() - prefix - suffix));
+        }
+        if (after.length() - prefix - suffix > 0) {
+            ops.add(TextOp.insert(after.substring(prefix, after.length() - suffix)));
+        }
+        return ops;
+    }
+
+    public static byte[] encode(List<TextOp> ops) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (TextOp op : ops) {
+                if (op.getRetain() != null) {
+                    out.writeByte(RETAIN);
+                    out.writeInt(op.getRetain());
+                } else if (op.getDelete() != null) {
+                    out.writeByte(DELETE);
+                    out.writeInt(op.getDelete());
+                } else {
+                    byte[] text = op.getInsert().getBytes(StandardCharsets.UTF_8);
+                    out.writeByte(INSERT);
+                    out.writeInt(text.length);
+                    out.write(text);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<TextOp> decode(byte[] data) {
+        List<TextOp> ops = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            while (in.available() > 0) {
+                byte type = in.readByte();
+                int value = in.readInt();
+                switch (type) {
+                    case RETAIN -> ops.add(TextOp.retain(value));
+                    case DELETE -> ops.add(TextOp.delete(value));
+                    case INSERT -> ops.add(TextOp.insert(new String(in.readNBytes(value), StandardCharsets.UTF_8)));
+                    default -> throw new IllegalStateException("Corrupt revision delta");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ops;
+    }
+
+    private static int checkedEnd(String text, int cursor, int count) {
+        if (count < 0 || cursor + count > text.length()) {
+            throw new IllegalArgumentException("Edit op runs past the end of the text");
+        }
+        return cursor + count;
+    }
+}
@@ -0,0 +1,63 @@
+package com.aniket.newproject.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Adds the unique (story_id, number) constraint on chapter. It is deferred to commit because the
+// renumbering UPDATEs in ChapterService shift numbers through values other rows still hold mid-statement.
+// Hibernate can't declare a deferrable constraint, so ddl-auto never creates it.
+@Service
+public class ChapterNumberMigration {
+
+    private static final String CONSTRAINT = "uk_chapter_story_number";
+
+    // Stories numbered before the story lock may have duplicates; those get 1..n in their current order
+    private static final String RENUMBER_SQL = """
+            UPDATE chapter c SET number = ranked.position
+            FROM (SELECT id, row_number() OVER (PARTITION BY story_id ORDER BY number, created_at, id) AS position
+                  FROM chapter
+                  WHERE story_id IN (SELECT story_id FROM chapter GROUP BY story_id, number HAVING COUNT(*) > 1)
+                 ) ranked
+            WHERE c.id = ranked.id AND c.number <> ranked.position
+            """;
+
+    private static final String ADD_CONSTRAINT_SQL =
+            "ALTER TABLE chapter ADD CONSTRAINT " + CONSTRAINT +
+                    " UNIQUE (story_id, number) DEFERRABLE INITIALLY DEFERRED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChapterNumberMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, CONSTRAINT);
+            if (Boolean.TRUE.equals(exists)) {
+                return;
+            }
+
+            Integer renumbered = transactionTemplate.execute(status -> {
+                // Keeps chapter writes out until the constraint is in place
+                jdbcTemplate.execute("LOCK TABLE chapter IN SHARE ROW EXCLUSIVE MODE");
+                int updated = jdbcTemplate.update(RENUMBER_SQL);
+                jdbcTemplate.execute(ADD_CONSTRAINT_SQL);
+                return updated;
+            });
+            if (renumbered != null && renumbered > 0) {
+                System.out.println("Renumbered " + renumbered + " chapters with duplicate numbers");
+            }
+            System.out.println("Added unique constraint on chapter (story_id, number)");
+        } catch (Exception e) {
+            System.err.println("Chapter number constraint migration failed: " + e.getMessage());
+        }
+    }
+}
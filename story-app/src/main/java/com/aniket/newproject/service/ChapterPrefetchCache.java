@@ -0,0 +1,164 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.ChapterStamp;
+import com.aniket.newproject.model.Chapter;
+import com.aniket.newproject.repo.ChapterRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Serialized chapter responses keyed by (story, number). Serving chapter n queues a background
+// load of n+1, since that is almost always the reader's next request. Entries are checked against
+// the chapter's current stamp before use, so an edit, renumbering or new comment just turns a hit
+// into a miss.
+@Service
+public class ChapterPrefetchCache {
+
+    public record Prefetched(String etag, byte[] json, long loadNanos) {
+    }
+
+    private record Key(UUID storyId, int number) {
+    }
+
+    private final ChapterRepository chapterRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncCache<Key, Prefetched> cache;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter hits;
+    private final Counter joined;
+    private final Counter misses;
+    private final Counter stale;
+    private final Counter dropped;
+    private final Timer saved;
+
+    public ChapterPrefetchCache(ChapterRepository chapterRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.chapters.prefetch.maxBytes:33554432}") long maxBytes,
+                                @Value("${app.chapters.prefetch.ttlSeconds:300}") long ttlSeconds,
+                                @Value("${app.chapters.prefetch.threads:2}") int threads,
+                                @Value("${app.chapters.prefetch.queueCapacity:200}") int queueCapacity) {
+        this.chapterRepository = chapterRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Prefetched entry) -> entry.json().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+
+        // Prefetching is best-effort: when the queue is full the load is dropped, not run inline
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chapter-prefetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hits = requests(meterRegistry, "hit");
+        this.joined = requests(meterRegistry, "joined");
+        this.misses = requests(meterRegistry, "miss");
+        this.stale = requests(meterRegistry, "stale");
+        this.dropped = Counter.builder("chapters.prefetch.dropped")
+                .description("Prefetches skipped because the queue was full")
+                .register(meterRegistry);
+        this.saved = Timer.builder("chapters.prefetch.saved")
+                .description("Load time a request skipped by finding its chapter already prefetched")
+                .register(meterRegistry);
+        Gauge.builder("chapters.prefetch.size", cache, c -> c.synchronous().estimatedSize())
+                .register(meterRegistry);
+        Gauge.builder("chapters.prefetch.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chapters.prefetch.requests").tag("result", result).register(meterRegistry);
+    }
+
+    // The response for the chapter `stamp` describes: cached when still current, loaded here otherwise
+    public Prefetched get(UUID storyId, ChapterStamp stamp) {
+        Key key = new Key(storyId, stamp.getNumber());
+        CompletableFuture<Prefetched> pending = cache.getIfPresent(key);
+        if (pending != null) {
+            boolean done = pending.isDone();
+            Prefetched entry = null;
+            try {
+                entry = pending.join();
+            } catch (CompletionException | CancellationException e) {
+                // Failed loads drop out of the cache on their own
+            }
+            if (entry != null && entry.etag().equals(stamp.etag())) {
+                if (done) {
+                    hits.increment();
+                    saved.record(entry.loadNanos(), TimeUnit.NANOSECONDS);
+                } else {
+                    joined.increment();
+                }
+                return entry;
+            }
+            stale.increment();
+        } else {
+            misses.increment();
+        }
+
+        Prefetched entry = load(key);
+        cache.put(key, CompletableFuture.completedFuture(entry));
+        return entry;
+    }
+
+    public void prefetch(UUID storyId, int number) {
+        Key key = new Key(storyId, number);
+        if (cache.getIfPresent(key) != null) {
+            return;
+        }
+        try {
+            cache.get(key, (k, cacheExecutor) -> CompletableFuture.supplyAsync(() -> load(k), executor));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private Prefetched load(Key key) {
+        return readOnlyTransaction.execute(status -> {
+            long start = System.nanoTime();
+            // Stamp first: if the chapter changes mid-load the entry looks stale rather than current
+            ChapterStamp stamp = chapterRepository.findStampByStoryIdAndNumber(key.storyId(), key.number())
+                    .orElseThrow(() -> new RuntimeException("Chapter not found"));
+            Chapter chapter = chapterRepository.findById(stamp.getId())
+                    .orElseThrow(() -> new RuntimeException("Chapter not found"));
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(chapter);
+                return new Prefetched(stamp.etag(), json, System.nanoTime() - start);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,115 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.ChapterRevisionSummary;
+import com.aniket.newproject.dto.TextOp;
+import com.aniket.newproject.model.Chapter;
+import com.aniket.newproject.model.ChapterRevision;
+import com.aniket.newproject.repo.ChapterRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Revision history per chapter: deltas against the previous revision, with a full snapshot
+// every app.chapters.snapshotEvery revisions so rebuilding one never replays a long chain
+@Service
+@RequiredArgsConstructor
+public class ChapterRevisionService {
+
+    private final ChapterRevisionRepository revisionRepository;
+
+    @Value("${app.chapters.snapshotEvery:20}")
+    private int snapshotEvery;
+
+    // Gives chapters written before revisions existed a first snapshot; no-op otherwise
+    public void ensureBaseline(Chapter chapter, String content) {
+        if (chapter.getRevision() == null) {
+            save(chapter, 1, true, gzip(content), content);
+        }
+    }
+
+    public void recordEdit(Chapter chapter, List<TextOp> ops, String newContent) {
+        int next = chapter.getRevision() + 1;
+        boolean snapshot = (next - 1) % snapshotEvery == 0;
+        save(chapter, next, snapshot, snapshot ? gzip(newContent) : ChapterDelta.encode(ops), newContent);
+    }
+
+    public String reconstruct(UUID chapterId, int revision) {
+        int base = revisionRepository.findSnapshotAtOrBefore(chapterId, revision)
+                .orElseThrow(() -> new RuntimeException("Revision not found"));
+        List<ChapterRevision> chain = revisionRepository
+                .findByChapterIdAndRevisionNumberBetweenOrderByRevisionNumber(chapterId, base, revision);
+        if (chain.size() != revision - base + 1) {
+            throw new RuntimeException("Revision not found");
+        }
+
+        String text = gunzip(chain.get(0).getData());
+        for (ChapterRevision delta : chain.subList(1, chain.size())) {
+            text = ChapterDelta.apply(text, ChapterDelta.decode(delta.getData()));
+        }
+        return text;
+    }
+
+    public List<ChapterRevisionSummary> getHistory(UUID chapterId) {
+        return revisionRepository.findSummariesByChapterId(chapterId);
+    }
+
+    public void deleteHistory(UUID chapterId) {
+        revisionRepository.deleteByChapterId(chapterId);
+    }
+
+    public static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((content == null ? "" : content).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void save(Chapter chapter, int number, boolean snapshot, byte[] data, String content) {
+        ChapterRevision revision = new ChapterRevision();
+        revision.setChapter(chapter);
+        revision.setRevisionNumber(number);
+        revision.setSnapshot(snapshot);
+        revision.setData(data);
+        revision.setDataSize(data.length);
+        revision.setContentHash(hash(content));
+        revisionRepository.save(revision);
+
+        chapter.setRevision(number);
+        chapter.setContentHash(revision.getContentHash());
+    }
+
+    private static byte[] gzip(String content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write((content == null ? "" : content).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.aniket.newproject.service;
 
+import com.aniket.newproject.dto.ChapterPatchRequest;
 import com.aniket.newproject.dto.ChapterRequest;
+import com.aniket.newproject.dto.ChapterRevisionSummary;
+import com.aniket.newproject.dto.ChapterStamp;
+import com.aniket.newproject.dto.ChapterTocEntry;
+import com.aniket.newproject.dto.TextOp;
 import com.aniket.newproject.model.Chapter;
 import com.aniket.newproject.model.Story;
 import com.aniket.newproject.repo.ChapterRepository;
 import com.aniket.newproject.repo.StoryRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -19,11 +33,33 @@ public class ChapterService {
 
     private final ChapterRepository chapterRepository;
     private final StoryRepository storyRepository;
+    private final ChapterContentStore contentStore;
+    private final ChapterRevisionService revisionService;
 
-    public List<Chapter> getChaptersByStoryId(UUID storyId) {
-        Story story = storyRepository.findById(storyId)
-                .orElseThrow(() -> new RuntimeException("Story not found"));
-        return chapterRepository.findByStory(story);
+    public List<ChapterTocEntry> getTableOfContents(UUID storyId) {
+        requireStory(storyId);
+        return chapterRepository.findTocByStoryId(storyId);
+    }
+
+    public Page<ChapterTocEntry> getTableOfContents(UUID storyId, int page, int size) {
+        requireStory(storyId);
+        return chapterRepository.findTocPageByStoryId(storyId, PageRequest.of(page, size, Sort.by("number")));
+    }
+
+    private void requireStory(UUID storyId) {
+        if (!storyRepository.existsById(storyId)) {
+            throw new RuntimeException("Story not found");
+        }
+    }
+
+    public ChapterStamp getChapterStamp(UUID storyId, int chapterNumber) {
+        return chapterRepository.findStampByStoryIdAndNumber(storyId, chapterNumber)
+                .orElseThrow(() -> new RuntimeException("Chapter not found"));
+    }
+
+    public ChapterStamp getChapterStamp(UUID chapterId) {
+        return chapterRepository.findStampById(chapterId)
+                .orElseThrow(() -> new RuntimeException("Chapter not found"));
     }
 
     public Chapter getChapterByNumber(UUID storyId, int chapterNumber) {
@@ -38,21 +74,26 @@ public class ChapterService {
 
     @Transactional
     public Chapter createChapter(UUID storyId, ChapterRequest request) {
-        Story story = storyRepository.findById(storyId)
-                .orElseThrow(() -> new RuntimeException("Story not found"));
+        Story story = lockStory(storyId);
 
-        // Get the next chapter number
-        List<Chapter> existingChapters = chapterRepository.findByStoryOrderByNumber(story);
-        int nextChapterNumber = existingChapters.size() + 1;
+        // Append after the last chapter, or open a gap at the requested position
+        int lastNumber = chapterRepository.findMaxChapterNumberByStoryId(storyId).orElse(0);
+        int number = lastNumber + 1;
+        if (request.getPosition() != null && request.getPosition() <= lastNumber) {
+            number = Math.max(1, request.getPosition());
+            chapterRepository.shiftNumbers(storyId, number, lastNumber, 1);
+        }
 
         Chapter chapter = new Chapter();
         chapter.setTitle(request.getTitle());
-        chapter.setContent(request.getContent());
-        chapter.setNumber(nextChapterNumber);
+        chapter.setNumber(number);
         chapter.setStory(story);
         chapter.setCreatedAt(LocalDateTime.now());
 
         Chapter savedChapter = chapterRepository.save(chapter);
+        revisionService.ensureBaseline(savedChapter, nullToEmpty(request.getContent()));
+        savedChapter.setContentLength(storeContent(savedChapter, request.getContent()));
+        savedChapter.setWordCount(countWords(request.getContent()));
 
         // Update story's updatedAt timestamp
         story.setUpdatedAt(LocalDateTime.now());
@@ -61,18 +102,17 @@ public class ChapterService {
         return savedChapter;
     }
 
+    // Full-body save; history still only keeps the span that changed
     @Transactional
     public Chapter updateChapter(UUID storyId, UUID chapterId, ChapterRequest request) {
-        Chapter chapter = chapterRepository.findById(chapterId)
-                .orElseThrow(() -> new RuntimeException("Chapter not found"));
-
-        // Verify chapter belongs to the story
-        if (!chapter.getStory().getId().equals(storyId)) {
-            throw new RuntimeException("Chapter does not belong to this story");
-        }
+        Chapter chapter = lockChapterInStory(storyId, chapterId);
+        String current = readCurrentContent(chapter);
+        String content = nullToEmpty(request.getContent());
 
         chapter.setTitle(request.getTitle());
-        chapter.setContent(request.getContent());
+        if (!content.equals(current)) {
+            writeRevision(chapter, ChapterDelta.diff(current, content), content);
+        }
 
         Chapter savedChapter = chapterRepository.save(chapter);
 
@@ -84,8 +124,104 @@ public class ChapterService {
         return savedChapter;
     }
 
+    // Applies edit ops to the revision identified by baseHash; a stale base is a RevisionConflictException
+    @Transactional
+    public Chapter patchChapter(UUID storyId, UUID chapterId, ChapterPatchRequest request) {
+        Chapter chapter = lockChapterInStory(storyId, chapterId);
+        String current = readCurrentContent(chapter);
+        if (!chapter.getContentHash().equals(request.getBaseHash())) {
+            throw new RevisionConflictException(chapter.getContentHash(), chapter.getRevision());
+        }
+
+        if (request.getTitle() != null) {
+            chapter.setTitle(request.getTitle());
+        }
+        List<TextOp> ops = request.getOps() == null ? List.of() : request.getOps();
+        String content = ChapterDelta.apply(current, ops);
+        if (!content.equals(current)) {
+            writeRevision(chapter, ops, content);
+        }
+
+        Chapter savedChapter = chapterRepository.save(chapter);
+
+        Story story = chapter.getStory();
+        story.setUpdatedAt(LocalDateTime.now());
+        storyRepository.save(story);
+
+        return savedChapter;
+    }
+
+    public List<ChapterRevisionSummary> getRevisionHistory(UUID storyId, UUID chapterId) {
+        findChapterInStory(storyId, chapterId);
+        return revisionService.getHistory(chapterId);
+    }
+
+    public String getRevisionContent(UUID storyId, UUID chapterId, int revision) {
+        findChapterInStory(storyId, chapterId);
+        return revisionService.reconstruct(chapterId, revision);
+    }
+
     @Transactional
     public void deleteChapter(UUID storyId, UUID chapterId) {
+        // Locked before reading the chapter so its number can't shift underneath us
+        Story story = lockStory(storyId);
+        Chapter chapter = findChapterInStory(storyId, chapterId);
+        int lastNumber = chapterRepository.findMaxChapterNumberByStoryId(storyId).orElse(0);
+
+        // Delete the chapter and close the gap
+        revisionService.deleteHistory(chapterId);
+        chapterRepository.delete(chapter);
+        chapterRepository.shiftNumbers(storyId, chapter.getNumber() + 1, lastNumber, -1);
+        // Only once the row is gone for good; a rolled-back delete keeps its body
+        afterCommit(() -> {
+            try {
+                contentStore.delete(chapterId);
+            } catch (IOException e) {
+                System.err.println("Failed to delete content for chapter " + chapterId + ": " + e.getMessage());
+            }
+        });
+
+        // Update story's updatedAt timestamp
+        story.setUpdatedAt(LocalDateTime.now());
+        storyRepository.save(story);
+    }
+
+    // Moves a chapter to newNumber, sliding the chapters in between by one
+    @Transactional
+    public Chapter moveChapter(UUID storyId, UUID chapterId, int newNumber) {
+        Story story = lockStory(storyId);
+        Chapter chapter = findChapterInStory(storyId, chapterId);
+        int lastNumber = chapterRepository.findMaxChapterNumberByStoryId(storyId).orElse(0);
+
+        int from = chapter.getNumber();
+        int to = Math.max(1, Math.min(newNumber, lastNumber));
+        if (from == to) {
+            return chapter;
+        }
+
+        if (from < to) {
+            chapterRepository.shiftNumbers(storyId, from + 1, to, -1);
+        } else {
+            chapterRepository.shiftNumbers(storyId, to, from - 1, 1);
+        }
+
+        // The bulk update cleared the persistence context, so reload before setting the new slot
+        Chapter moved = findChapterInStory(storyId, chapterId);
+        moved.setNumber(to);
+        Chapter savedChapter = chapterRepository.save(moved);
+
+        story.setUpdatedAt(LocalDateTime.now());
+        storyRepository.save(story);
+
+        return savedChapter;
+    }
+
+    private Story lockStory(UUID storyId) {
+        return storyRepository.findByIdForUpdate(storyId)
+                .orElseThrow(() -> new RuntimeException("Story not found"));
+    }
+
+    private Chapter findChapterInStory(UUID storyId, UUID chapterId) {
         Chapter chapter = chapterRepository.findById(chapterId)
                 .orElseThrow(() -> new RuntimeException("Chapter not found"));
 
@@ -93,23 +229,161 @@ public class ChapterService {
         if (!chapter.getStory().getId().equals(storyId)) {
             throw new RuntimeException("Chapter does not belong to this story");
         }
+        return chapter;
+    }
 
-        // Get chapters after this one to renumber them
-        List<Chapter> laterChapters = chapterRepository.findByStoryAndNumberGreaterThan(
-                chapter.getStory(), chapter.getNumber());
+    private Chapter lockChapterInStory(UUID storyId, UUID chapterId) {
+        Chapter chapter = chapterRepository.findByIdForUpdate(chapterId)
+                .orElseThrow(() -> new RuntimeException("Chapter not found"));
+        if (!chapter.getStory().getId().equals(storyId)) {
+            throw new RuntimeException("Chapter does not belong to this story");
+        }
+        return chapter;
+    }
 
-        // Delete the chapter
-        chapterRepository.delete(chapter);
+    // Current body, giving chapters from before revision history their baseline snapshot (and a
+    // body stored under it) first. Edit ops must never be applied to text other than the revision
+    // they were based on, so a body that doesn't match the row's contentHash is rebuilt from history.
+    private String readCurrentContent(Chapter chapter) {
+        String current = chapter.getContentLength() == null
+                ? ""
+                : nullToEmpty(readContent(chapter.getId(), chapter.getRevision()));
+        if (chapter.getContentHash() != null && !ChapterRevisionService.hash(current).equals(chapter.getContentHash())) {
+            current = restoreContent(chapter.getId(), chapter.getRevision());
+        }
+        if (chapter.getRevision() == null) {
+            revisionService.ensureBaseline(chapter, current);
+            chapter.setContentLength(storeContent(chapter, current));
+        }
+        return current;
+    }
+
+    private void writeRevision(Chapter chapter, List<TextOp> ops, String content) {
+        revisionService.recordEdit(chapter, ops, content);
+        chapter.setContentLength(storeContent(chapter, content));
+        chapter.setWordCount(countWords(content));
+    }
 
-        // Renumber subsequent chapters
-        for (Chapter laterChapter : laterChapters) {
-            laterChapter.setNumber(laterChapter.getNumber() - 1);
-            chapterRepository.save(laterChapter);
+    // The committed body of `revision`; one that has gone missing is rebuilt from revision history
+    public String readContent(UUID chapterId, Integer revision) {
+        try {
+            return contentStore.read(chapterId, revision);
+        } catch (NoSuchFileException e) {
+            if (revision == null) {
+                throw new RuntimeException("Chapter content not found");
+            }
+            return restoreContent(chapterId, revision);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read chapter content", e);
         }
+    }
 
-        // Update story's updatedAt timestamp
-        Story story = chapter.getStory();
-        story.setUpdatedAt(LocalDateTime.now());
-        storyRepository.save(story);
+    private String restoreContent(UUID chapterId, int revision) {
+        String content = revisionService.reconstruct(chapterId, revision);
+        try {
+            contentStore.write(chapterId, revision, content);
+        } catch (IOException e) {
+            System.err.println("Failed to restore content for chapter " + chapterId + ": " + e.getMessage());
+        }
+        return content;
+    }
+
+    private static String nullToEmpty(String text) {
+        return text == null ? "" : text;
+    }
+
+    public long getContentLength(UUID chapterId, Integer revision) {
+        try {
+            long length = contentStore.length(chapterId, revision);
+            if (length < 0 && revision != null) {
+                restoreContent(chapterId, revision);
+                length = contentStore.length(chapterId, revision);
+            }
+            if (length < 0) {
+                throw new RuntimeException("Chapter content not found");
+            }
+            return length;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read chapter content", e);
+        }
+    }
+
+    // Streams a byte range of the plain chapter text, inflating as it goes
+    public void writeContent(UUID chapterId, Integer revision, long position, long count, OutputStream out)
+            throws IOException {
+        contentStore.transferTo(chapterId, revision, position, count, Channels.newChannel(out));
+    }
+
+    public String getContentEncoding() {
+        return contentStore.encoding();
+    }
+
+    public long getEncodedContentLength(UUID chapterId, Integer revision) {
+        try {
+            long length = contentStore.encodedLength(chapterId, revision);
+            if (length < 0 && revision != null) {
+                restoreContent(chapterId, revision);
+                length = contentStore.encodedLength(chapterId, revision);
+            }
+            if (length < 0) {
+                throw new RuntimeException("Chapter content not found");
+            }
+            return length;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read chapter content", e);
+        }
+    }
+
+    // Streams the stored compressed bytes untouched, for clients that accept getContentEncoding()
+    public void writeEncodedContent(UUID chapterId, Integer revision, OutputStream out) throws IOException {
+        contentStore.transferEncodedTo(chapterId, revision, Channels.newChannel(out));
+    }
+
+    // Whitespace-separated tokens, counted without splitting the text into an array
+    static int countWords(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean whitespace = Character.isWhitespace(text.charAt(i));
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
+        }
+        return words;
+    }
+
+    // Stored under the chapter's new revision before the row commits, so the body a committed row
+    // points at always exists and nothing that runs later can replace it. Earlier revisions' bodies
+    // go once the commit makes them unreachable.
+    private long storeContent(Chapter chapter, String content) {
+        UUID chapterId = chapter.getId();
+        int revision = chapter.getRevision();
+        long length;
+        try {
+            length = contentStore.write(chapterId, revision, content);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store chapter content", e);
+        }
+        afterCommit(() -> {
+            try {
+                contentStore.deleteOlderThan(chapterId, revision);
+            } catch (IOException e) {
+                System.err.println("Failed to prune content for chapter " + chapterId + ": " + e.getMessage());
+            }
+        });
+        return length;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
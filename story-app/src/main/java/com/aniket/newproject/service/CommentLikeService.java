@@ -0,0 +1,113 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.CommentLikeState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Per-user comment likes. The comment_like row is the source of truth and is written at once;
+// comment.like_count only moves through the CounterBuffer, flushed in batches by flush()
+@Service
+public class CommentLikeService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterBuffer<UUID> pendingLikes = new CounterBuffer<>();
+
+    public CommentLikeService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("comments.likes.pending", pendingLikes, CounterBuffer::size)
+                .description("Comments with like count changes not yet written")
+                .register(meterRegistry);
+    }
+
+    // Liking twice is a no-op; only a row actually inserted moves the count
+    public CommentLikeState like(UUID commentId, UUID userId) {
+        if (insertLike(commentId, userId)) {
+            pendingLikes.add(commentId, 1);
+        }
+        return new CommentLikeState(true, getLikeCount(commentId));
+    }
+
+    public CommentLikeState unlike(UUID commentId, UUID userId) {
+        if (deleteLike(commentId, userId)) {
+            pendingLikes.add(commentId, -1);
+        }
+        return new CommentLikeState(false, getLikeCount(commentId));
+    }
+
+    public CommentLikeState toggle(UUID commentId, UUID userId) {
+        if (insertLike(commentId, userId)) {
+            pendingLikes.add(commentId, 1);
+            return new CommentLikeState(true, getLikeCount(commentId));
+        }
+        return unlike(commentId, userId);
+    }
+
+    // Persisted count plus whatever hasn't been flushed yet
+    public long getLikeCount(UUID commentId) {
+        Integer persisted = jdbcTemplate.queryForObject(
+                "SELECT like_count FROM comment WHERE id = ?", Integer.class, commentId);
+        return Math.max(0, (persisted == null ? 0 : persisted) + pendingLikes.pending(commentId));
+    }
+
+    public long pendingLikes(UUID commentId) {
+        return pendingLikes.pending(commentId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.comments.likeFlushMs:1000}")
+    public void flush() {
+        Map<UUID, Long> deltas = pendingLikes.beginFlush();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Sorted so two nodes flushing overlapping comments lock rows in the same order
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> updates.add(new Object[]{entry.getValue(), entry.getKey()}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE comment SET like_count = GREATEST(0, like_count + ?) WHERE id = ?", updates));
+            pendingLikes.completeFlush(deltas);
+        } catch (Exception e) {
+            pendingLikes.abortFlush(deltas);
+            System.err.println("Comment like flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean insertLike(UUID commentId, UUID userId) {
+        try {
+            Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "INSERT INTO comment_like (comment_id, user_id, liked_at) VALUES (?, ?, now()) " +
+                            "ON CONFLICT DO NOTHING", commentId, userId));
+            return inserted != null && inserted > 0;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Comment or user not found");
+        }
+    }
+
+    private boolean deleteLike(UUID commentId, UUID userId) {
+        Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM comment_like WHERE comment_id = ? AND user_id = ?", commentId, userId));
+        return deleted != null && deleted > 0;
+    }
+}
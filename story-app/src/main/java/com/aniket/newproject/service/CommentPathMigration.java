@@ -0,0 +1,114 @@
+package com.aniket.newproject.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+// Fills in path/depth/root_id and reply_count for comments written before those columns existed
+@Service
+public class CommentPathMigration {
+
+    // Same segment format as Comment.pathSegment: 12 hex digits of epoch millis + 8 of the id
+    private static final String SEGMENT =
+            "lpad(to_hex(floor(EXTRACT(EPOCH FROM %1$s.created_at) * 1000)::bigint), 12, '0') || left(%1$s.id::text, 8)";
+
+    // Filled in with the segment expression and an optional filter on the thread roots
+    private static final String BACKFILL_TEMPLATE = """
+            WITH RECURSIVE tree AS (
+                SELECT c.id, c.id AS root_id, 0 AS depth, %1$s AS path
+                FROM comment c WHERE c.parent_comment_id IS NULL %2$s
+                UNION ALL
+                SELECT c.id, t.root_id, t.depth + 1, t.path || '.' || %1$s
+                FROM comment c JOIN tree t ON c.parent_comment_id = t.id
+            )
+            UPDATE comment SET root_id = tree.root_id, depth = tree.depth, path = tree.path
+            FROM tree WHERE comment.id = tree.id AND comment.path IS NULL
+            """;
+
+    private static final String BACKFILL_SQL = BACKFILL_TEMPLATE.formatted(SEGMENT.formatted("c"), "");
+
+    private static final String CHAPTER_BACKFILL_SQL =
+            BACKFILL_TEMPLATE.formatted(SEGMENT.formatted("c"), "AND c.chapter_id = ?");
+
+    private static final String REPLY_COUNT_SQL = """
+            UPDATE comment c SET reply_count =
+                (SELECT COUNT(*) FROM comment r WHERE r.parent_comment_id = c.id)
+            WHERE c.reply_count IS NULL
+            """;
+
+    private static final String CHAPTER_REPLY_COUNT_SQL = REPLY_COUNT_SQL + " AND c.chapter_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CommentPathMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        usePathCollation();
+        buildPaths();
+        countReplies();
+    }
+
+    private void countReplies() {
+        try {
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(REPLY_COUNT_SQL));
+            if (updated != null && updated > 0) {
+                System.out.println("Counted replies for " + updated + " comments");
+            }
+        } catch (Exception e) {
+            System.err.println("Comment reply count backfill failed: " + e.getMessage());
+        }
+    }
+
+    // Columns created before Comment.path declared text COLLATE "C" are either varchar(255), which
+    // caps threads at 11 levels, or use the database default collation, under which punctuation may be
+    // ignored when comparing. Runs before the backfill so deep legacy threads fit; indexes are rebuilt too
+    private void usePathCollation() {
+        try {
+            Boolean current = jdbcTemplate.queryForObject(
+                    "SELECT data_type = 'text' AND collation_name = 'C' FROM information_schema.columns " +
+                            "WHERE table_name = 'comment' AND column_name = 'path'", Boolean.class);
+            if (!Boolean.TRUE.equals(current)) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                        "ALTER TABLE comment ALTER COLUMN path TYPE text COLLATE \"C\""));
+                System.out.println("Switched comment.path to text with C collation");
+            }
+        } catch (Exception e) {
+            System.err.println("Comment path column change failed: " + e.getMessage());
+        }
+    }
+
+    // Same backfill for one chapter, for readers who reach it before (or after a failed) startup run
+    public int buildPaths(UUID chapterId) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int paths = jdbcTemplate.update(CHAPTER_BACKFILL_SQL, chapterId);
+            jdbcTemplate.update(CHAPTER_REPLY_COUNT_SQL, chapterId);
+            return paths;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    private void buildPaths() {
+        try {
+            Boolean pending = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM comment WHERE path IS NULL)", Boolean.class);
+            if (!Boolean.TRUE.equals(pending)) {
+                return;
+            }
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(BACKFILL_SQL));
+            if (updated != null && updated > 0) {
+                System.out.println("Built thread paths for " + updated + " comments");
+            }
+        } catch (Exception e) {
+            System.err.println("Comment path migration failed: " + e.getMessage());
+        }
+    }
+}
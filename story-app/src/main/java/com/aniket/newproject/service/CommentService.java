@@ -1,32 +1,184 @@
 package com.aniket.newproject.service;
 
+import com.aniket.newproject.dto.CommentNode;
+import com.aniket.newproject.dto.CommentSortKey;
+import com.aniket.newproject.dto.CursorSlice;
 import com.aniket.newproject.model.Comment;
 import com.aniket.newproject.model.User;
 import com.aniket.newproject.model.Chapter;
 import com.aniket.newproject.repo.CommentRepository;
 import com.aniket.newproject.repo.UserRepository;
 import com.aniket.newproject.repo.ChapterRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class CommentService {
 
+    private static final String NODE_COLUMNS = "c.id, c.parent_comment_id, c.root_id, c.depth, c.path, " +
+            "c.user_id, u.username, c.content, c.created_at, c.like_count, c.reply_count";
+
+    // One page of top-level comments in sort order (keyset on sort column, id), each followed by the
+    // first :replies + 1 replies of its thread in path order; the extra row only signals that more exist.
+    // Filled in with the sort column, direction and seek condition.
+    private static final String THREADS_SQL = """
+            WITH roots AS (
+                SELECT id, %%1$s AS sort_value FROM comment
+                WHERE chapter_id = :chapterId AND parent_comment_id IS NULL %%3$s
+                ORDER BY %%1$s %%2$s, id %%2$s
+                LIMIT :limit
+            )
+            SELECT %s
+            FROM roots r
+            CROSS JOIN LATERAL (
+                SELECT * FROM comment d WHERE d.id = r.id
+                UNION ALL
+                (SELECT * FROM comment d WHERE d.root_id = r.id AND d.id <> r.id ORDER BY d.path LIMIT :replies + 1)
+            ) c
+            JOIN users u ON u.id = c.user_id
+            ORDER BY r.sort_value %%2$s, r.id %%2$s, c.path NULLS FIRST
+            """.formatted(NODE_COLUMNS);
+
+    // Descendants of one comment in path order: everything between "path." and "path/"
+    private static final String REPLIES_SQL = """
+            SELECT %s
+            FROM comment c JOIN users u ON u.id = c.user_id
+            WHERE c.root_id = :rootId AND c.path > :after AND c.path < :upper
+            ORDER BY c.path
+            LIMIT :limit
+            """.formatted(NODE_COLUMNS);
+
+    private record Row(CommentNode node, UUID rootId, String path) {
+    }
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> {
+        CommentNode node = new CommentNode();
+        node.setId(rs.getObject("id", UUID.class));
+        node.setParentId(rs.getObject("parent_comment_id", UUID.class));
+        node.setDepth(rs.getInt("depth"));
+        node.setUserId(rs.getObject("user_id", UUID.class));
+        node.setUsername(rs.getString("username"));
+        node.setContent(rs.getString("content"));
+        node.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        node.setLikeCount(rs.getInt("like_count"));
+        node.setReplyCount(rs.getInt("reply_count"));
+        return new Row(node, rs.getObject("root_id", UUID.class), rs.getString("path"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final ChapterRepository chapterRepository;
+    private final CommentLikeService commentLikeService;
+    private final CommentPathMigration pathMigration;
 
-    public List<Comment> getCommentsByChapter(UUID chapterId) {
-        Chapter chapter = chapterRepository.findById(chapterId)
-                .orElseThrow(() -> new RuntimeException("Chapter not found"));
-        return commentRepository.findByChapterAndParentCommentIsNullOrderByCreatedAtAsc(chapter);
+    // Top-level comments, keyset-paginated, each carrying a preview of its thread and a cursor for the rest
+    public CursorSlice<CommentNode> getComments(UUID chapterId, String sort, String cursor, int size, int replies) {
+        CommentSortKey sortKey = CommentSortKey.fromParam(sort);
+        MapSqlParameterSource params = new MapSqlParameterSource("chapterId", chapterId)
+                .addValue("limit", size + 1)
+                .addValue("replies", replies);
+
+        String seek = "";
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 3);
+            if (!parts[0].equals(sortKey.name())) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sort);
+            }
+            seek = "AND (" + sortKey.getColumn() + ", id) " + (sortKey.isDescending() ? "<" : ">")
+                    + " (:lastValue, :lastId)";
+            params.addValue("lastValue", sortKey.parseValue(parts[1]))
+                    .addValue("lastId", UUID.fromString(parts[2]));
+        }
+
+        String sql = THREADS_SQL.formatted(sortKey.getColumn(), sortKey.isDescending() ? "DESC" : "ASC", seek);
+        List<Row> rows = jdbcTemplate.query(sql, params, ROW_MAPPER);
+        // Roots come back even without a path; their threads are built now instead of shown empty
+        if (rows.stream().anyMatch(row -> row.path() == null) && pathMigration.buildPaths(chapterId) > 0) {
+            rows = jdbcTemplate.query(sql, params, ROW_MAPPER);
+        }
+
+        // Group rows per thread; they arrive thread by thread, root first, parents before children
+        List<CommentNode> threads = new ArrayList<>();
+        Map<UUID, CommentNode> byId = new HashMap<>();
+        String lastShownPath = null;
+        int shownReplies = 0;
+        for (Row row : rows) {
+            CommentNode node = row.node();
+            if (node.getParentId() == null) {
+                threads.add(node);
+                byId.put(node.getId(), node);
+                lastShownPath = row.path();
+                shownReplies = 0;
+            } else if (shownReplies == replies) {
+                CommentNode root = threads.get(threads.size() - 1);
+                root.setRepliesCursor(CursorCodec.encode(root.getId(), lastShownPath));
+            } else {
+                byId.get(node.getParentId()).getReplies().add(node);
+                byId.put(node.getId(), node);
+                lastShownPath = row.path();
+                shownReplies++;
+            }
+        }
+
+        boolean hasNext = threads.size() > size;
+        List<CommentNode> content = hasNext ? threads.subList(0, size) : threads;
+        String nextCursor = null;
+        if (hasNext) {
+            CommentNode last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(sortKey.name(), sortKey.valueOf(last), last.getId());
+        }
+        // After the cursor, which has to seek on the persisted like_count
+        rows.forEach(row -> addPendingLikes(row.node()));
+        return new CursorSlice<>(content, nextCursor, hasNext);
     }
 
+    // "Load more replies": the next descendants of commentId in path order, flat with parentId and depth
+    public CursorSlice<CommentNode> getReplies(UUID chapterId, UUID commentId, String cursor, int size) {
+        Comment comment = commentRepository.findById(commentId)
+                .filter(c -> c.getChapter().getId().equals(chapterId))
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+
+        String after = comment.getPath();
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            // A thread cursor may be continued from the root or from any ancestor of its last reply
+            if (!parts[1].startsWith(comment.getPath() + Comment.PATH_SEPARATOR)) {
+                throw new IllegalArgumentException("Cursor does not belong to this comment");
+            }
+            after = parts[1];
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource("rootId", comment.getRootId())
+                .addValue("after", after)
+                .addValue("upper", comment.getPath() + (char) (Comment.PATH_SEPARATOR + 1))
+                .addValue("limit", size + 1);
+        List<Row> rows = jdbcTemplate.query(REPLIES_SQL, params, ROW_MAPPER);
+
+        boolean hasNext = rows.size() > size;
+        List<Row> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CursorCodec.encode(commentId, page.get(page.size() - 1).path()) : null;
+        page.forEach(row -> addPendingLikes(row.node()));
+        return new CursorSlice<>(page.stream().map(Row::node).toList(), nextCursor, hasNext);
+    }
+
+    private void addPendingLikes(CommentNode node) {
+        node.setLikeCount((int) Math.max(0, node.getLikeCount() + commentLikeService.pendingLikes(node.getId())));
+    }
+
+    @Transactional
     public Comment addComment(UUID userId, UUID chapterId, String content) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -41,10 +193,17 @@ public class CommentService {
         comment.setUpdatedAt(LocalDateTime.now());
         comment.setParentComment(null);
         comment.setLikeCount(0);
+        comment.setReplyCount(0);
 
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        // The id is assigned on save; the path is set before the insert is flushed
+        saved.setRootId(saved.getId());
+        saved.setDepth(0);
+        saved.setPath(Comment.pathSegment(saved.getId(), saved.getCreatedAt()));
+        return saved;
     }
 
+    @Transactional
     public Comment replyToComment(UUID parentCommentId, UUID userId, String content) {
         Comment parentComment = commentRepository.findById(parentCommentId)
                 .orElseThrow(() -> new RuntimeException("Parent comment not found"));
@@ -59,19 +218,33 @@ public class CommentService {
         reply.setUpdatedAt(LocalDateTime.now());
         reply.setParentComment(parentComment);
         reply.setLikeCount(0);
+        reply.setReplyCount(0);
 
-        return commentRepository.save(reply);
+        Comment saved = commentRepository.save(reply);
+        // In-place increment, so concurrent replies to one comment can't lose a count
+        commentRepository.incrementReplyCount(parentCommentId);
+        buildPath(saved);
+        return saved;
     }
 
-    public void toggleCommentLike(UUID commentId, UUID userId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
-
-        // For simplicity, just increment like count.
-        // Extend this with a separate Like entity for real per-user tracking.
-
-        comment.setLikeCount(comment.getLikeCount() + 1);
-        commentRepository.save(comment);
+    // Ancestors written before CommentPathMigration ran may still lack path/depth/root_id, so those
+    // are filled in from the parent chain first rather than depending on the backfill having run
+    private void buildPath(Comment comment) {
+        if (comment.getPath() != null) {
+            return;
+        }
+        Comment parent = comment.getParentComment();
+        String segment = Comment.pathSegment(comment.getId(), comment.getCreatedAt());
+        if (parent == null) {
+            comment.setRootId(comment.getId());
+            comment.setDepth(0);
+            comment.setPath(segment);
+            return;
+        }
+        buildPath(parent);
+        comment.setRootId(parent.getRootId());
+        comment.setDepth(parent.getDepth() + 1);
+        comment.setPath(parent.getPath() + Comment.PATH_SEPARATOR + segment);
     }
 
     public void validateChapterBelongsToStory(UUID chapterId, UUID storyId) {
@@ -0,0 +1,89 @@
+package com.aniket.newproject.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Pending counter deltas per key, flushed to the database by the owner in batches.
+// Like LongAdder, writers are spread over stripes chosen by thread so a hot key doesn't serialize
+// every writer on one lock; unlike LongAdder cells, a key's delta can be taken out of a stripe
+// atomically, so flushing never loses an increment that races with it.
+public class CounterBuffer<K> {
+
+    private final ConcurrentHashMap<K, Long>[] stripes;
+    // Taken by beginFlush() and not yet committed; still part of pending() so reads don't dip
+    private final ConcurrentHashMap<K, Long> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public CounterBuffer() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2);
+        stripes = new ConcurrentHashMap[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public void add(K key, long delta) {
+        if (delta != 0) {
+            stripe().merge(key, delta, CounterBuffer::sumOrRemove);
+        }
+    }
+
+    // Delta not yet committed; add it to the persisted value for an up-to-date read
+    public long pending(K key) {
+        long sum = inFlight.getOrDefault(key, 0L);
+        for (ConcurrentHashMap<K, Long> stripe : stripes) {
+            Long delta = stripe.get(key);
+            if (delta != null) {
+                sum += delta;
+            }
+        }
+        return sum;
+    }
+
+    // Takes every pending delta for writing. They keep counting in pending() until the write
+    // commits (completeFlush) or fails (abortFlush); anything added meanwhile waits for the next flush.
+    public Map<K, Long> beginFlush() {
+        Map<K, Long> taken = new HashMap<>();
+        for (ConcurrentHashMap<K, Long> stripe : stripes) {
+            for (K key : stripe.keySet()) {
+                Long delta = stripe.get(key);
+                if (delta == null) {
+                    continue;
+                }
+                // Into inFlight before out of the stripe: a read in between may over-count, never drop
+                inFlight.merge(key, delta, CounterBuffer::sumOrRemove);
+                stripe.merge(key, -delta, CounterBuffer::sumOrRemove);
+                taken.merge(key, delta, Long::sum);
+            }
+        }
+        taken.values().removeIf(delta -> delta == 0);
+        return taken;
+    }
+
+    // The deltas are in the database now, so the persisted value already includes them
+    public void completeFlush(Map<K, Long> deltas) {
+        deltas.forEach((key, delta) -> inFlight.merge(key, -delta, CounterBuffer::sumOrRemove));
+    }
+
+    public void abortFlush(Map<K, Long> deltas) {
+        deltas.forEach(this::add);
+        completeFlush(deltas);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<K, Long> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static Long sumOrRemove(Long a, Long b) {
+        return a + b == 0 ? null : a + b;
+    }
+
+    private ConcurrentHashMap<K, Long> stripe() {
+        return stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,137 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.DashboardData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+// The dashboard is identical for every visitor, so it is serialized once and served as bytes
+@Service
+public class DashboardCache {
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag, long builtAt) {
+
+        // Either representation's tag means the client already has the current content
+        public boolean matches(String ifNoneMatch) {
+            return ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.contains(gzipEtag));
+        }
+    }
+
+    private final StoryService storyService;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMs;
+    private final ExecutorService refresher;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private volatile boolean invalidated;
+
+    public DashboardCache(StoryService storyService, ObjectMapper objectMapper,
+                          @Value("${app.dashboard.maxAgeSeconds:60}") long maxAgeSeconds) {
+        this.storyService = storyService;
+        this.objectMapper = objectMapper;
+        this.maxAgeMs = maxAgeSeconds * 1000;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Serves the current snapshot even when stale; a single background rebuild brings it up to date
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return buildNow();
+        }
+        if (invalidated || System.currentTimeMillis() - current.builtAt() > maxAgeMs) {
+            refreshAsync();
+        }
+        return current;
+    }
+
+    // Runs after TrendingRankingService has patched its rankings for the same event
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        invalidated = true;
+        refreshAsync();
+    }
+
+    private synchronized Snapshot buildNow() {
+        // Another request may have built it while this one waited for the lock
+        if (snapshot == null) {
+            snapshot = build();
+        }
+        return snapshot;
+    }
+
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                // Cleared first so an event arriving mid-build schedules another pass
+                invalidated = false;
+                snapshot = build();
+            } catch (Exception e) {
+                invalidated = true;
+                System.err.println("Dashboard refresh failed: " + e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private Snapshot build() {
+        DashboardData data = new DashboardData();
+        data.setTrending(storyService.getTrendingStories(6));
+        data.setRecent(storyService.getRecentStories(8));
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(data);
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+
+            String hash = hash(json);
+            return new Snapshot(json, compressed.toByteArray(), "\"" + hash + "\"", "\"" + hash + "-gz\"",
+                    System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Strong validators come from the exact JSON bytes; the gzip body gets its own suffixed tag
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdown();
+    }
+}
@@ -0,0 +1,7 @@
+package com.aniket.newproject.service;
+
+public class DuplicateUserException extends RuntimeException {
+    public DuplicateUserException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,208 @@
+package com.aniket.newproject.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// One gzip file per chapter revision under app.chapters.storeDir, fanned out by the first two id characters:
+// <id>.<revision>.txt.gz, or <id>.txt.gz for a chapter from before revisions were kept.
+// gzip rather than a better ratio codec because browsers can take these bytes as Content-Encoding unchanged.
+@Service
+public class FileSystemChapterContentStore implements ChapterContentStore {
+
+    private static final String SUFFIX = ".txt.gz";
+    // Written by the first version of this store, before bodies were compressed
+    private static final String PLAIN_SUFFIX = ".txt";
+
+    private final Path root;
+    private final int compressionLevel;
+
+    public FileSystemChapterContentStore(@Value("${app.chapters.storeDir:data/chapters}") String storeDir,
+                                         @Value("${app.chapters.compressionLevel:6}") int compressionLevel) {
+        this.root = Path.of(storeDir).toAbsolutePath();
+        this.compressionLevel = compressionLevel;
+    }
+
+    // Written to a temp file and renamed into place, so readers only ever see a complete body
+    @Override
+    public long write(UUID chapterId, Integer revision, String content) throws IOException {
+        byte[] plain = (content == null ? "" : content).getBytes(StandardCharsets.UTF_8);
+        Path target = pathOf(chapterId, revision);
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(target.getParent(), chapterId.toString(), ".tmp");
+        try {
+            try (OutputStream out = gzip(Files.newOutputStream(temp))) {
+                out.write(plain);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return plain.length;
+    }
+
+    @Override
+    public String read(UUID chapterId, Integer revision) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(pathOf(chapterId, revision)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public long length(UUID chapterId, Integer revision) throws IOException {
+        // The gzip trailer ends with the uncompressed size (mod 2^32), so no need to inflate
+        try (FileChannel channel = FileChannel.open(pathOf(chapterId, revision), StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(trailer, channel.size() - 4);
+            return Integer.toUnsignedLong(trailer.getInt(0));
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void transferTo(UUID chapterId, Integer revision, long position, long count, WritableByteChannel target)
+            throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(pathOf(chapterId, revision)), 8192)) {
+            in.skipNBytes(position);
+            OutputStream out = Channels.newOutputStream(target);
+            byte[] buffer = new byte[8192];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    @Override
+    public String encoding() {
+        return "gzip";
+    }
+
+    @Override
+    public long encodedLength(UUID chapterId, Integer revision) throws IOException {
+        try {
+            return Files.size(pathOf(chapterId, revision));
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void transferEncodedTo(UUID chapterId, Integer revision, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(chapterId, revision), StandardOpenOption.READ)) {
+            long position = 0;
+            long size = channel.size();
+            // transferTo may move fewer bytes than asked, so loop until the file is done
+            while (position < size) {
+                long sent = channel.transferTo(position, size - position, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // A rolled-back edit can leave a body for a revision above the committed one; the next edit that
+    // commits under that revision number overwrites it before its commit
+    @Override
+    public void deleteOlderThan(UUID chapterId, int revision) throws IOException {
+        String prefix = chapterId + ".";
+        for (Path file : bodiesOf(chapterId)) {
+            String name = file.getFileName().toString();
+            if (name.equals(chapterId + SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else if (name.startsWith(prefix) && name.endsWith(SUFFIX)) {
+                String number = name.substring(prefix.length(), name.length() - SUFFIX.length());
+                try {
+                    if (Integer.parseInt(number) < revision) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(UUID chapterId) throws IOException {
+        for (Path file : bodiesOf(chapterId)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Every file of the chapter, temp files included
+    private List<Path> bodiesOf(UUID chapterId) throws IOException {
+        Path dir = pathOf(chapterId, null).getParent();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(chapterId.toString())).toList();
+        }
+    }
+
+    // Compresses bodies left behind as plain files by the previous store layout
+    @EventListener(ApplicationReadyEvent.class)
+    public void compressPlainFiles() {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            List<Path> plainFiles = files.filter(path -> path.toString().endsWith(PLAIN_SUFFIX)).toList();
+            for (Path plain : plainFiles) {
+                String name = plain.getFileName().toString();
+                UUID chapterId = UUID.fromString(name.substring(0, name.length() - PLAIN_SUFFIX.length()));
+                write(chapterId, null, Files.readString(plain, StandardCharsets.UTF_8));
+                Files.delete(plain);
+            }
+            if (!plainFiles.isEmpty()) {
+                System.out.println("Compressed " + plainFiles.size() + " stored chapter bodies");
+            }
+        } catch (Exception e) {
+            System.err.println("Compressing stored chapter bodies failed: " + e.getMessage());
+        }
+    }
+
+    private OutputStream gzip(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        };
+    }
+
+    private Path pathOf(UUID chapterId, Integer revision) {
+        String id = chapterId.toString();
+        return root.resolve(id.substring(0, 2)).resolve(id + (revision == null ? "" : "." + revision) + SUFFIX);
+    }
+}
@@ -0,0 +1,149 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.model.Story;
+import com.aniket.newproject.repo.StoryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recomputes Story.hotScore from recent likes, ratings and reads, decayed by age
+@Service
+public class HotScoreScheduler {
+
+    // Each activity contributes weight * 2^(-age / halfLife); only rows inside the window are scanned
+    private static final String SCORE_SQL = """
+            SELECT s.id, s.hot_score,
+                   COALESCE(l.score, 0) * :likeWeight
+                 + COALESCE(r.score, 0) * :ratingWeight
+                 + COALESCE(rd.score, 0) * :readWeight AS score
+            FROM story s
+            LEFT JOIN (SELECT story_id, SUM(EXP(:decay * EXTRACT(EPOCH FROM (:now - liked_at)))) AS score
+                       FROM likes WHERE story_id IN (:ids) AND liked_at > :since
+                       GROUP BY story_id) l ON l.story_id = s.id
+            LEFT JOIN (SELECT story_id, SUM(rating / 5.0 * EXP(:decay * EXTRACT(EPOCH FROM (:now - rated_at)))) AS score
+                       FROM rating WHERE story_id IN (:ids) AND rated_at > :since
+                       GROUP BY story_id) r ON r.story_id = s.id
+            LEFT JOIN (SELECT story_id, SUM(EXP(:decay * EXTRACT(EPOCH FROM (:now - last_read_at)))) AS score
+                       FROM read WHERE story_id IN (:ids) AND last_read_at > :since
+                       GROUP BY story_id) rd ON rd.story_id = s.id
+            WHERE s.id IN (:ids)
+            """;
+
+    // Scores this close to the stored value aren't rewritten, so idle stories cost no writes
+    private static final double EPSILON = 1e-4;
+
+    private final StoryRepository storyRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ExecutorService executor;
+
+    private final int batchSize;
+    private final double halfLifeHours;
+    private final int windowDays;
+    private final double likeWeight;
+    private final double ratingWeight;
+    private final double readWeight;
+
+    public HotScoreScheduler(StoryRepository storyRepository,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${app.hot.threads:2}") int threads,
+                             @Value("${app.hot.batchSize:500}") int batchSize,
+                             @Value("${app.hot.halfLifeHours:48}") double halfLifeHours,
+                             @Value("${app.hot.windowDays:14}") int windowDays,
+                             @Value("${app.hot.likeWeight:1.0}") double likeWeight,
+                             @Value("${app.hot.ratingWeight:2.0}") double ratingWeight,
+                             @Value("${app.hot.readWeight:0.5}") double readWeight) {
+        this.storyRepository = storyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        this.halfLifeHours = halfLifeHours;
+        this.windowDays = windowDays;
+        this.likeWeight = likeWeight;
+        this.ratingWeight = ratingWeight;
+        this.readWeight = readWeight;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "hot-score-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot.recomputeMs:600000}", initialDelayString = "${app.hot.initialDelayMs:30000}")
+    public void recompute() {
+        try {
+            List<UUID> ids = storyRepository.findPublishedIds();
+            // One clock for the whole run so every batch decays against the same instant
+            LocalDateTime now = LocalDateTime.now();
+
+            List<CompletableFuture<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<UUID> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                batches.add(CompletableFuture.supplyAsync(() -> recomputeBatch(batch, now), executor));
+            }
+
+            int updated = batches.stream().mapToInt(CompletableFuture::join).sum();
+            System.out.println("Hot scores recomputed for " + ids.size() + " stories, " + updated + " changed");
+        } catch (Exception e) {
+            System.err.println("Hot score recompute failed: " + e.getMessage());
+        }
+    }
+
+    private int recomputeBatch(List<UUID> ids, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("since", Timestamp.valueOf(now.minusDays(windowDays)))
+                .addValue("decay", -Math.log(2) / (halfLifeHours * 3600))
+                .addValue("likeWeight", likeWeight)
+                .addValue("ratingWeight", ratingWeight)
+                .addValue("readWeight", readWeight);
+
+        List<Object[]> changes = transactionTemplate.execute(status -> {
+            List<Object[]> changed = new ArrayList<>();
+            jdbcTemplate.query(SCORE_SQL, params, rs -> {
+                double score = rs.getDouble("score");
+                if (Math.abs(score - rs.getDouble("hot_score")) > EPSILON) {
+                    changed.add(new Object[]{score, rs.getObject("id", UUID.class)});
+                }
+            });
+            if (!changed.isEmpty()) {
+                jdbcTemplate.getJdbcTemplate().batchUpdate("UPDATE story SET hot_score = ? WHERE id = ?", changed);
+            }
+            return changed;
+        });
+        if (changes == null) {
+            return 0;
+        }
+
+        // Written behind Hibernate's back, so drop the cached Story entities it would otherwise serve
+        changes.forEach(change -> entityManagerFactory.getCache().evict(Story.class, change[1]));
+        return changes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
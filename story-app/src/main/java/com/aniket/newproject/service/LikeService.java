@@ -1,47 +1,105 @@
 package com.aniket.newproject.service;
 
-import com.aniket.newproject.model.*;
+import com.aniket.newproject.model.Story;
 import com.aniket.newproject.repo.LikeRepository;
-import com.aniket.newproject.repo.StoryRepository;
-import com.aniket.newproject.repo.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+// Story likes. The likes row is written at once and is idempotent on its primary key;
+// story.like_count only moves through the CounterBuffer, flushed in batches by flush()
 @Service
-@RequiredArgsConstructor
 public class LikeService {
 
     private final LikeRepository likeRepository;
-    private final UserRepository userRepository;
-    private final StoryRepository storyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CounterBuffer<UUID> pendingLikes = new CounterBuffer<>();
+
+    public LikeService(LikeRepository likeRepository, JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+                       ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.likeRepository = likeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("stories.likes.pending", pendingLikes, CounterBuffer::size)
+                .description("Stories with like count changes not yet written")
+                .register(meterRegistry);
+    }
 
     public void like(UUID userId, UUID storyId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        Story story = storyRepository.findById(storyId).orElseThrow();
-        LikeId id = new LikeId(userId, storyId);
-
-        if (!likeRepository.existsById(id)) {
-            Like like = new Like(id, user, story, LocalDateTime.now());
-            likeRepository.save(like);
-            story.setLikeCount(story.getLikeCount() + 1);
-            storyRepository.save(story);
+        Integer inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "INSERT INTO likes (story_id, user_id, liked_at) VALUES (?, ?, now()) ON CONFLICT DO NOTHING",
+                    storyId, userId));
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Story or user not found");
+        }
+        if (inserted != null && inserted > 0) {
+            pendingLikes.add(storyId, 1);
         }
     }
 
     public void unlike(UUID userId, UUID storyId) {
-        LikeId id = new LikeId(userId, storyId);
-        if (likeRepository.existsById(id)) {
-            likeRepository.deleteById(id);
-            Story story = storyRepository.findById(storyId).orElseThrow();
-            story.setLikeCount(Math.max(0, story.getLikeCount() - 1));
-            storyRepository.save(story);
+        Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM likes WHERE story_id = ? AND user_id = ?", storyId, userId));
+        if (deleted != null && deleted > 0) {
+            pendingLikes.add(storyId, -1);
         }
     }
 
     public boolean hasUserLikedStory(UUID userId, UUID storyId) {
         return likeRepository.existsByUserIdAndStoryId(userId, storyId);
     }
+
+    @Scheduled(fixedDelayString = "${app.likes.flushMs:1000}")
+    public void flush() {
+        Map<UUID, Long> deltas = pendingLikes.beginFlush();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Sorted so two nodes flushing overlapping stories lock rows in the same order
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> updates.add(new Object[]{entry.getValue(), entry.getKey()}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE story SET like_count = GREATEST(0, like_count + ?) WHERE id = ?", updates));
+            pendingLikes.completeFlush(deltas);
+        } catch (Exception e) {
+            pendingLikes.abortFlush(deltas);
+            System.err.println("Story like flush failed, will retry: " + e.getMessage());
+            return;
+        }
+
+        // Written behind Hibernate's back, so drop the cached Story entities before telling listeners
+        for (UUID storyId : deltas.keySet()) {
+            entityManagerFactory.getCache().evict(Story.class, storyId);
+            eventPublisher.publishEvent(new StoryChangedEvent(storyId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
 }
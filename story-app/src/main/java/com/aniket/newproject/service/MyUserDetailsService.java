@@ -4,6 +4,7 @@ import com.aniket.newproject.model.UserPrincipal;
 import com.aniket.newproject.repo.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,7 +15,7 @@ import java.util.Optional;
 
 
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository repo;
@@ -32,4 +33,16 @@ public class MyUserDetailsService implements UserDetailsService {
                 user.orElseThrow(() -> new UsernameNotFoundException("User 404"))
         );
     }
+
+    // Called after a successful login whose stored hash is weaker than the configured strength
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userDetails instanceof UserPrincipal principal && principal.getUser() != null
+                ? principal.getUser()
+                : repo.findByUsername(userDetails.getUsername())
+                        .orElseThrow(() -> new UsernameNotFoundException("User 404"));
+
+        user.setPassword(newPassword);
+        return new UserPrincipal(repo.save(user));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.model.Story;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Builds story_rating_aggregate from the rating table for stories rated before it existed
+@Service
+public class RatingAggregateMigration {
+
+    private static final String MISSING_SQL = """
+            SELECT EXISTS (SELECT 1 FROM rating r
+                           WHERE NOT EXISTS (SELECT 1 FROM story_rating_aggregate a WHERE a.story_id = r.story_id))
+            """;
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO story_rating_aggregate
+                (story_id, rating_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5)
+            SELECT story_id, SUM(rating), COUNT(*),
+                   COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2),
+                   COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4),
+                   COUNT(*) FILTER (WHERE rating = 5)
+            FROM rating GROUP BY story_id
+            ON CONFLICT (story_id) DO UPDATE SET
+                rating_sum = EXCLUDED.rating_sum, rating_count = EXCLUDED.rating_count,
+                stars_1 = EXCLUDED.stars_1, stars_2 = EXCLUDED.stars_2, stars_3 = EXCLUDED.stars_3,
+                stars_4 = EXCLUDED.stars_4, stars_5 = EXCLUDED.stars_5
+            """;
+
+    private static final String AVERAGE_SQL = """
+            UPDATE story s SET rating_avg = a.rating_sum::real / a.rating_count
+            FROM story_rating_aggregate a WHERE a.story_id = s.id AND a.rating_count > 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public RatingAggregateMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(MISSING_SQL, Boolean.class))) {
+                return;
+            }
+
+            // The lock holds back live ratings' upserts until the rebuild commits; ratings committed
+            // before it are counted by the rebuild, ratings still in flight add their delta after it
+            Integer rebuilt = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE story_rating_aggregate IN SHARE ROW EXCLUSIVE MODE");
+                int rows = jdbcTemplate.update(REBUILD_SQL);
+                jdbcTemplate.update(AVERAGE_SQL);
+                return rows;
+            });
+            entityManagerFactory.getCache().evict(Story.class);
+            System.out.println("Rebuilt rating aggregates for " + rebuilt + " stories");
+        } catch (Exception e) {
+            System.err.println("Rating aggregate backfill failed: " + e.getMessage());
+        }
+    }
+}
@@ -1,41 +1,118 @@
 package com.aniket.newproject.service;
 
+import com.aniket.newproject.dto.RatingDistribution;
 import com.aniket.newproject.model.*;
 import com.aniket.newproject.repo.RatingRepository;
-import com.aniket.newproject.repo.StoryRepository;
-import com.aniket.newproject.repo.UserRepository;
+import com.aniket.newproject.repo.StoryRatingAggregateRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDateTime;
 import java.util.*;
 
+// Ratings keep story_rating_aggregate up to date with deltas, so rating a story costs the same
+// few statements however many ratings it already has
 @Service
 @RequiredArgsConstructor
 public class RatingService {
 
+    // Adds the given deltas; a story's first rating creates its row
+    private static final String AGGREGATE_UPSERT_SQL = """
+            INSERT INTO story_rating_aggregate AS a
+                (story_id, rating_sum, rating_count, stars_1, stars_2, stars_3, stars_4, stars_5)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (story_id) DO UPDATE SET
+                rating_sum = a.rating_sum + EXCLUDED.rating_sum,
+                rating_count = a.rating_count + EXCLUDED.rating_count,
+                stars_1 = a.stars_1 + EXCLUDED.stars_1,
+                stars_2 = a.stars_2 + EXCLUDED.stars_2,
+                stars_3 = a.stars_3 + EXCLUDED.stars_3,
+                stars_4 = a.stars_4 + EXCLUDED.stars_4,
+                stars_5 = a.stars_5 + EXCLUDED.stars_5
+            RETURNING rating_sum, rating_count
+            """;
+
     private final RatingRepository ratingRepository;
-    private final UserRepository userRepository;
-    private final StoryRepository storyRepository;
+    private final StoryRatingAggregateRepository aggregateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void rate(UUID userId, UUID storyId, int ratingValue) {
         if (ratingValue < 1 || ratingValue > 5) throw new IllegalArgumentException("Invalid rating");
 
-        User user = userRepository.findById(userId).orElseThrow();
-        Story story = storyRepository.findById(storyId).orElseThrow();
-
-        RatingId id = new RatingId(userId, storyId);
-        Rating rating = new Rating(id, user, story, ratingValue, LocalDateTime.now());
-        ratingRepository.save(rating);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Integer previous = saveRating(userId, storyId, ratingValue);
+                if (previous == null || previous != ratingValue) {
+                    applyDelta(storyId, previous, ratingValue);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Story or user not found");
+        }
 
-        // update story ratingAvg
-        List<Rating> ratings = ratingRepository.findByStory(story);
-        double avg = ratings.stream().mapToInt(Rating::getRating).average().orElse(0);
-        story.setRatingAvg((float) avg);
-        storyRepository.save(story);
+        // rating_avg was written behind Hibernate's back
+        entityManagerFactory.getCache().evict(Story.class, storyId);
+        eventPublisher.publishEvent(new StoryChangedEvent(storyId));
     }
 
     public Rating getRatingByUserAndStory(UUID userId, UUID storyId) {
         return ratingRepository.findByUserIdAndStoryId(userId, storyId).orElse(null);
     }
+
+    public RatingDistribution getDistribution(UUID storyId) {
+        return aggregateRepository.findById(storyId)
+                .map(a -> new RatingDistribution(
+                        a.getRatingCount() == 0 ? 0 : (double) a.getRatingSum() / a.getRatingCount(),
+                        a.getRatingCount(),
+                        new long[]{a.getStars1(), a.getStars2(), a.getStars3(), a.getStars4(), a.getStars5()}))
+                .orElseGet(() -> new RatingDistribution(0, 0, new long[5]));
+    }
+
+    // Writes the user's rating and returns the one it replaced, null if this is their first
+    private Integer saveRating(UUID userId, UUID storyId, int ratingValue) {
+        Integer previous = lockRating(userId, storyId);
+        if (previous == null) {
+            int inserted = jdbcTemplate.update(
+                    "INSERT INTO rating (story_id, user_id, rating, rated_at) VALUES (?, ?, ?, now()) " +
+                            "ON CONFLICT DO NOTHING", storyId, userId, ratingValue);
+            if (inserted > 0) {
+                return null;
+            }
+            // The same user's first rating committed concurrently; treat this as a re-rate of it
+            previous = lockRating(userId, storyId);
+        }
+        jdbcTemplate.update("UPDATE rating SET rating = ?, rated_at = now() WHERE story_id = ? AND user_id = ?",
+                ratingValue, storyId, userId);
+        return previous;
+    }
+
+    private Integer lockRating(UUID userId, UUID storyId) {
+        List<Integer> rows = jdbcTemplate.queryForList(
+                "SELECT rating FROM rating WHERE story_id = ? AND user_id = ? FOR UPDATE",
+                Integer.class, storyId, userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void applyDelta(UUID storyId, Integer previous, int ratingValue) {
+        long[] stars = new long[5];
+        stars[ratingValue - 1]++;
+        if (previous != null) {
+            stars[previous - 1]--;
+        }
+        long sumDelta = ratingValue - (previous == null ? 0 : previous);
+        long countDelta = previous == null ? 1 : 0;
+
+        long[] totals = jdbcTemplate.queryForObject(AGGREGATE_UPSERT_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong("rating_sum"), rs.getLong("rating_count")},
+                storyId, sumDelta, countDelta, stars[0], stars[1], stars[2], stars[3], stars[4]);
+        jdbcTemplate.update("UPDATE story SET rating_avg = ? WHERE id = ?",
+                totals[1] == 0 ? 0f : (float) totals[0] / totals[1], storyId);
+    }
 }
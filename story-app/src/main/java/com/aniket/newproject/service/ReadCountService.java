@@ -0,0 +1,146 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.model.Story;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Story.readCount counts unique readers per story per (UTC) day. Each story-day keeps a
+// HyperLogLog of its readers; flush() moves the growth of every changed estimate since the last
+// flush into the CounterBuffer and writes it in one batch, so recording a read never touches the
+// database and popular stories are counted as accurately as quiet ones.
+@Service
+public class ReadCountService {
+
+    private record StoryDay(UUID storyId, LocalDate day) {
+    }
+
+    private static final class DailyReaders {
+        private final HyperLogLog readers;
+        // Part of the estimate already added to read_count
+        private long counted;
+
+        DailyReaders(int precision) {
+            this.readers = new HyperLogLog(precision);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CounterBuffer<UUID> pendingReads = new CounterBuffer<>();
+    private final Cache<StoryDay, DailyReaders> readers;
+    // Story-days whose estimate may have grown since the last flush; holds the value so an
+    // eviction from the cache can't lose it
+    private final Map<StoryDay, DailyReaders> changed = new ConcurrentHashMap<>();
+    private final int precision;
+
+    private final Counter unique;
+    private final Counter repeat;
+
+    public ReadCountService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.reads.sketchPrecision:12}") int precision,
+                            @Value("${app.reads.maxTrackedStories:20000}") long maxTrackedStories) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.precision = precision;
+
+        // A sketch evicted before its day ends just lets that day's readers count once more
+        this.readers = Caffeine.newBuilder()
+                .maximumSize(maxTrackedStories)
+                .expireAfterWrite(Duration.ofHours(25))
+                .build();
+
+        this.unique = Counter.builder("stories.reads.recorded").tag("result", "unique").register(meterRegistry);
+        this.repeat = Counter.builder("stories.reads.recorded").tag("result", "repeat").register(meterRegistry);
+        Gauge.builder("stories.reads.pending", pendingReads, CounterBuffer::size)
+                .description("Stories with read count changes not yet written")
+                .register(meterRegistry);
+        Gauge.builder("stories.reads.sketches", readers, Cache::estimatedSize)
+                .description("Story-day reader sketches held in memory")
+                .register(meterRegistry);
+    }
+
+    public void recordRead(UUID storyId, UUID readerId) {
+        StoryDay key = new StoryDay(storyId, LocalDate.now(ZoneOffset.UTC));
+        DailyReaders daily = readers.get(key, k -> new DailyReaders(precision));
+        if (daily.readers.add(readerId)) {
+            changed.put(key, daily);
+            unique.increment();
+        } else {
+            repeat.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reads.flushMs:5000}")
+    public void flush() {
+        for (StoryDay key : changed.keySet()) {
+            DailyReaders daily = changed.remove(key);
+            if (daily != null) {
+                // Only growth is pushed; the estimate may wobble down slightly at the linear-counting cutover
+                synchronized (daily) {
+                    long growth = daily.readers.estimate() - daily.counted;
+                    if (growth > 0) {
+                        daily.counted += growth;
+                        pendingReads.add(key.storyId(), growth);
+                    }
+                }
+            }
+        }
+
+        Map<UUID, Long> deltas = pendingReads.beginFlush();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Sorted so two nodes flushing overlapping stories lock rows in the same order
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> updates.add(new Object[]{entry.getValue(), entry.getKey()}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE story SET read_count = read_count + ? WHERE id = ?", updates));
+            pendingReads.completeFlush(deltas);
+        } catch (Exception e) {
+            pendingReads.abortFlush(deltas);
+            System.err.println("Read count flush failed, will retry: " + e.getMessage());
+            return;
+        }
+
+        // Written behind Hibernate's back, so drop the cached Story entities before telling listeners
+        for (UUID storyId : deltas.keySet()) {
+            entityManagerFactory.getCache().evict(Story.class, storyId);
+            eventPublisher.publishEvent(new StoryChangedEvent(storyId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
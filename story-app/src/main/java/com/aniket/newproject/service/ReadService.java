@@ -8,7 +8,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -18,23 +17,44 @@ public class ReadService {
     private final ReadRepository readRepository;
     private final UserRepository userRepository;
     private final StoryRepository storyRepository;
-    private final ChapterRepository chapterRepository;
+    private final ReadCountService readCountService;
+    private final ReadingProgressBuffer progressBuffer;
 
     public Read getUserReadStatus(UUID userId, UUID storyId) {
         ReadId readId = new ReadId(userId, storyId);
-        return readRepository.findById(readId).orElse(null);
+        Read read = readRepository.findById(readId).orElse(null);
+        if (read != null) {
+            return withPendingProgress(read);
+        }
+
+        // First position not flushed yet
+        ReadingProgressBuffer.Position position = progressBuffer.get(userId, storyId);
+        if (position == null) {
+            return null;
+        }
+        return Read.builder()
+                .id(readId)
+                .status(ReadStatus.READING)
+                .currentChapter(position.chapterNumber())
+                .progress(position.progress() != null ? position.progress() : 0)
+                .lastReadAt(position.at())
+                .updatedAt(position.at())
+                .build();
     }
 
+    // Stories first read within the last flush interval show up once they're flushed
     public List<Read> getUserReads(UUID userId) {
-        return readRepository.findByUserId(userId);
+        return readRepository.findByUserId(userId).stream().map(this::withPendingProgress).toList();
     }
 
     public List<Read> getReadsByStatus(UUID userId, ReadStatus status) {
-        return readRepository.findByUserIdAndStatus(userId, status);
+        return readRepository.findByUserIdAndStatus(userId, status).stream().map(this::withPendingProgress).toList();
     }
 
     @Transactional
     public Read addOrUpdateReadingStatus(UUID userId, UUID storyId, ReadStatus status) {
+        // Buffered progress would otherwise land after, and override, this explicit status
+        progressBuffer.flush(userId, storyId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Story story = storyRepository.findById(storyId)
@@ -61,47 +81,34 @@ public class ReadService {
         return readRepository.save(read);
     }
 
-    @Transactional
-    public Read updateReadingProgress(UUID userId, UUID storyId, Integer chapterNumber, Integer progress) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Story story = storyRepository.findById(storyId)
-                .orElseThrow(() -> new RuntimeException("Story not found"));
-
-        ReadId readId = new ReadId(userId, storyId);
-        Read read = readRepository.findById(readId).orElse(null);
-
-        if (read == null) {
-            read = Read.builder()
-                    .id(readId)
-                    .user(user)
-                    .story(story)
-                    .status(ReadStatus.READING) // Default to READING on first progress
-                    .currentChapter(chapterNumber)
-                    .progress(progress != null ? progress : 0)
-                    .lastReadAt(LocalDateTime.now())
-                    .build();
-        } else {
-            read.setCurrentChapter(chapterNumber);
-            if (progress != null) {
-                read.setProgress(progress);
-            }
-            read.setLastReadAt(LocalDateTime.now());
-            read.setUpdatedAt(LocalDateTime.now());
-
-            // Auto-set status to READING if no status or not reading/completed
-            if (read.getStatus() == null ||
-                    (read.getStatus() != ReadStatus.READING && read.getStatus() != ReadStatus.COMPLETED)) {
-                read.setStatus(ReadStatus.READING);
-            }
+    // Buffered: the position reaches the read table with the next flush, or now at session end
+    public void updateReadingProgress(UUID userId, UUID storyId, Integer chapterNumber, Integer progress,
+                                      boolean sessionEnd) {
+        readCountService.recordRead(storyId, userId);
+        progressBuffer.update(userId, storyId, chapterNumber, progress);
+        if (sessionEnd) {
+            progressBuffer.flush(userId, storyId);
         }
+    }
 
-        Optional<Chapter> chapterOpt = chapterRepository.findByStoryIdAndNumber(storyId, chapterNumber);
-        if (chapterOpt.isPresent()) {
-            read.setLastChapterRead(chapterOpt.get());
+    // The buffered position wins over the stored one; the row itself is left untouched
+    private Read withPendingProgress(Read read) {
+        ReadingProgressBuffer.Position position =
+                progressBuffer.get(read.getId().getUserId(), read.getId().getStoryId());
+        if (position == null) {
+            return read;
         }
-
-        return readRepository.save(read);
+        return Read.builder()
+                .id(read.getId())
+                .user(read.getUser())
+                .story(read.getStory())
+                .lastChapterRead(read.getLastChapterRead())
+                .status(ReadingProgressBuffer.statusAfterProgress(read.getStatus()))
+                .currentChapter(position.chapterNumber())
+                .progress(position.progress() != null ? position.progress() : read.getProgress())
+                .lastReadAt(position.at())
+                .updatedAt(position.at())
+                .build();
     }
 
     /**
@@ -109,6 +116,7 @@ public class ReadService {
      */
     @Transactional
     public void removeFromReadingList(UUID userId, UUID storyId) {
+        progressBuffer.discard(userId, storyId);
         ReadId readId = new ReadId(userId, storyId);
         readRepository.deleteById(readId);
     }
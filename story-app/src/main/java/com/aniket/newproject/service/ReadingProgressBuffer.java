@@ -0,0 +1,156 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.model.ReadStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latest reading position per (user, story), written to the read table in one batched upsert per
+// flush. Heartbeats in between just replace the entry, so a reader scrolling through a chapter
+// costs one write per interval instead of one per ping.
+@Service
+public class ReadingProgressBuffer {
+
+    public record Position(int chapterNumber, Integer progress, LocalDateTime at) {
+    }
+
+    private record Key(UUID userId, UUID storyId) {
+    }
+
+    private static final Comparator<Key> LOCK_ORDER =
+            Comparator.comparing(Key::storyId).thenComparing(Key::userId);
+
+    // Mirrors what ReadService did per ping: a first position creates a READING row, later ones
+    // move it, leave the stored progress alone when none was sent, and pull a WANT_TO_READ row
+    // back to READING
+    private static final String UPSERT_SQL = """
+            INSERT INTO read AS r
+                (user_id, story_id, status, current_chapter, progress, last_read_at, updated_at, last_chapter_read_id)
+            VALUES (?, ?, 'READING', ?, COALESCE(?, 0), ?, ?,
+                    (SELECT c.id FROM chapter c WHERE c.story_id = ? AND c.number = ?))
+            ON CONFLICT (story_id, user_id) DO UPDATE SET
+                current_chapter = EXCLUDED.current_chapter,
+                progress = COALESCE(?, r.progress),
+                last_read_at = EXCLUDED.last_read_at,
+                updated_at = EXCLUDED.updated_at,
+                last_chapter_read_id = COALESCE(EXCLUDED.last_chapter_read_id, r.last_chapter_read_id),
+                status = CASE WHEN r.status IN ('READING', 'COMPLETED') THEN r.status ELSE 'READING' END
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Key, Position> pending = new ConcurrentHashMap<>();
+
+    private final Counter updates;
+    private final Counter writes;
+
+    public ReadingProgressBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.updates = Counter.builder("reads.progress.updates")
+                .description("Progress updates received")
+                .register(meterRegistry);
+        this.writes = Counter.builder("reads.progress.writes")
+                .description("Progress rows written to the database")
+                .register(meterRegistry);
+        Gauge.builder("reads.progress.pending", pending, Map::size)
+                .description("Reading positions not yet written")
+                .register(meterRegistry);
+    }
+
+    public void update(UUID userId, UUID storyId, int chapterNumber, Integer progress) {
+        Position position = new Position(chapterNumber, progress, LocalDateTime.now());
+        pending.merge(new Key(userId, storyId), position, (previous, latest) -> latest.progress() != null
+                ? latest
+                : new Position(latest.chapterNumber(), previous.progress(), latest.at()));
+        updates.increment();
+    }
+
+    // Unwritten position, or null; reads lay this over what the database has
+    public Position get(UUID userId, UUID storyId) {
+        return pending.get(new Key(userId, storyId));
+    }
+
+    // For a row that's being removed, so a later flush doesn't bring it back
+    public void discard(UUID userId, UUID storyId) {
+        pending.remove(new Key(userId, storyId));
+    }
+
+    // Writes one reader's position now: at session end, or before a direct change to the same row
+    public void flush(UUID userId, UUID storyId) {
+        Key key = new Key(userId, storyId);
+        Position position = pending.get(key);
+        if (position != null && pending.remove(key, position)) {
+            write(List.of(Map.entry(key, position)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reads.progressFlushMs:5000}")
+    public void flush() {
+        // Positions replaced since the snapshot stay pending and go out with the next flush
+        List<Map.Entry<Key, Position>> batch = new ArrayList<>();
+        for (Map.Entry<Key, Position> entry : new ArrayList<>(pending.entrySet())) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (!batch.isEmpty()) {
+            // Sorted so two nodes flushing overlapping rows lock them in the same order
+            batch.sort(Map.Entry.comparingByKey(LOCK_ORDER));
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public static ReadStatus statusAfterProgress(ReadStatus status) {
+        return status == ReadStatus.READING || status == ReadStatus.COMPLETED ? status : ReadStatus.READING;
+    }
+
+    private void write(List<Map.Entry<Key, Position>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL,
+                    batch.stream().map(ReadingProgressBuffer::params).toList()));
+            writes.increment(batch.size());
+        } catch (Exception e) {
+            // One unknown user or story fails the whole batch; retry row by row to find it
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(Map.Entry<Key, Position> entry) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(UPSERT_SQL, params(entry)));
+            writes.increment();
+        } catch (DataIntegrityViolationException e) {
+            System.err.println("Dropping reading position for unknown user or story " + entry.getKey().storyId());
+        } catch (Exception e) {
+            // A newer position may have arrived meanwhile; that one wins
+            pending.putIfAbsent(entry.getKey(), entry.getValue());
+            System.err.println("Reading progress flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private static Object[] params(Map.Entry<Key, Position> entry) {
+        Key key = entry.getKey();
+        Position position = entry.getValue();
+        Timestamp at = Timestamp.valueOf(position.at());
+        return new Object[]{key.userId(), key.storyId(), position.chapterNumber(), position.progress(), at, at,
+                key.storyId(), position.chapterNumber(), position.progress()};
+    }
+}
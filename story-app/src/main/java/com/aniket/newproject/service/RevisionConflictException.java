@@ -0,0 +1,21 @@
+package com.aniket.newproject.service;
+
+// A patch was computed against a revision that is no longer the current one
+public class RevisionConflictException extends RuntimeException {
+    private final String currentHash;
+    private final int currentRevision;
+
+    public RevisionConflictException(String currentHash, int currentRevision) {
+        super("Chapter has changed since the base revision");
+        this.currentHash = currentHash;
+        this.currentRevision = currentRevision;
+    }
+
+    public String getCurrentHash() {
+        return currentHash;
+    }
+
+    public int getCurrentRevision() {
+        return currentRevision;
+    }
+}
@@ -1,6 +1,6 @@
 package com.aniket.newproject.service;
 
-import com.aniket.newproject.model.Story;
+import com.aniket.newproject.dto.StorySummary;
 import com.aniket.newproject.model.User;
 import com.aniket.newproject.repo.UserRepository;
 import com.aniket.newproject.repo.StoryRepository;
@@ -16,16 +16,16 @@ public class SearchService {
     private final StoryRepository storyRepository;
     private final UserRepository userRepository;
 
-    public List<Story> searchStories(String query) {
-        return storyRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
+    public List<StorySummary> searchStories(String query) {
+        return storyRepository.searchSummaries(query);
     }
 
     public List<User> searchUsers(String query) {
         return userRepository.findByUsernameContainingIgnoreCaseOrBioContainingIgnoreCase(query, query);
     }
 
-    public List<Story> getAllStories() {
-        return storyRepository.findAll();
+    public List<StorySummary> getAllStories() {
+        return storyRepository.findAllSummaries();
     }
 
     public List<User> getAllUsers() {
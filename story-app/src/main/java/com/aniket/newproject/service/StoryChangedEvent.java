@@ -0,0 +1,7 @@
+package com.aniket.newproject.service;
+
+import java.util.UUID;
+
+// Published when a story's counters or visibility change (like, rating, publish, ...)
+public record StoryChangedEvent(UUID storyId) {
+}
@@ -1,5 +1,9 @@
 package com.aniket.newproject.service;
 
+import com.aniket.newproject.dto.CursorSlice;
+import com.aniket.newproject.dto.StorySortKey;
+import com.aniket.newproject.dto.StoryStamp;
+import com.aniket.newproject.dto.StorySummary;
 import com.aniket.newproject.model.Story;
 import com.aniket.newproject.model.Genre;
 import com.aniket.newproject.model.Chapter;
@@ -10,6 +14,7 @@ import com.aniket.newproject.repo.GenreRepository;
 import com.aniket.newproject.repo.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +33,8 @@ public class StoryService {
     private final GenreRepository genreRepository;
     private final UserRepository userRepository;
     private final ChapterRepository chapterRepository;
+    private final TrendingRankingService trendingRankingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Story createStory(Story story) {
@@ -38,7 +45,11 @@ public class StoryService {
         }
         story.setCreatedAt(LocalDateTime.now());
         story.setUpdatedAt(LocalDateTime.now());
-        return storyRepository.save(story);
+        Story saved = storyRepository.save(story);
+        if (saved.isPublished()) {
+            eventPublisher.publishEvent(new StoryChangedEvent(saved.getId()));
+        }
+        return saved;
     }
 
     public List<Story> getStoriesByGenre(String genreName) {
@@ -47,16 +58,20 @@ public class StoryService {
         return storyRepository.findByGenre(genre);
     }
 
-    public Page<Story> getStoriesByGenrePaginated(String genreName, Pageable pageable) {
-        Genre genre = genreRepository.findByName(genreName)
-                .orElseThrow(() -> new RuntimeException("Genre not found"));
-        return storyRepository.findByGenreAndIsPublishedTrue(genre, pageable);
+    public Page<StorySummary> getStoriesByGenrePaginated(String genreName, Pageable pageable) {
+        if (genreRepository.findByName(genreName).isEmpty()) {
+            throw new RuntimeException("Genre not found");
+        }
+        return storyRepository.findPublishedSummaryPageByGenre(genreName, pageable);
     }
 
-    public List<Story> getStoriesByUser(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return storyRepository.findByAuthor(user);
+    public List<StorySummary> getStoriesByUser(UUID userId) {
+        return storyRepository.findSummariesByAuthorId(userId);
+    }
+
+    public StoryStamp getStoryStamp(UUID storyId) {
+        return storyRepository.findStampById(storyId)
+                .orElseThrow(() -> new RuntimeException("Story not found"));
     }
 
     public Story getStoryById(UUID storyId) {
@@ -76,37 +91,64 @@ public class StoryService {
         return storyRepository.findAll();
     }
 
-    public Page<Story> getAllStoriesPaginated(Pageable pageable) {
-        return storyRepository.findByIsPublishedTrue(pageable);
-    }
+    // Cursor (keyset) pagination: no OFFSET scan and no count query, whatever the depth
+    public CursorSlice<StorySummary> browseStories(String genreName, String sortBy, String sortDir,
+                                                   String cursor, int size) {
+        StorySortKey sortKey = StorySortKey.fromProperty(sortBy);
+        boolean descending = !"asc".equalsIgnoreCase(sortDir);
+
+        Object lastValue = null;
+        UUID lastId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 3);
+            if (!parts[0].equals(sortKey.name())) {
+                throw new IllegalArgumentException("Cursor does not match sort key " + sortBy);
+            }
+            lastValue = sortKey.parseValue(parts[1]);
+            lastId = UUID.fromString(parts[2]);
+        }
 
-    public List<Story> getTrendingStories(int limit) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Order.desc("ratingAvg"),
-                Sort.Order.desc("likeCount"),
-                Sort.Order.desc("readCount")));
-        return storyRepository.findTrendingStories(pageable);
+        // One extra row tells us whether there is a next page
+        List<StorySummary> rows = storyRepository.findSummariesAfter(
+                genreName, sortKey, descending, lastValue, lastId, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<StorySummary> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            StorySummary last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(sortKey.name(), sortKey.valueOf(last), last.getId());
+        }
+        return new CursorSlice<>(content, nextCursor, hasNext);
     }
 
-    public List<Story> getRecentStories(int limit) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Order.desc("updatedAt")));
-        return storyRepository.findByIsPublishedTrue(pageable).getContent();
+    public Page<StorySummary> getAllStoriesPaginated(Pageable pageable) {
+        return storyRepository.findPublishedSummaryPage(pageable);
     }
 
-    public List<Story> getTrendingStoriesByGenre(String genreName, int limit, int page) {
-        Pageable pageable = PageRequest.of(page, limit,
-                Sort.by(Sort.Order.desc("ratingAvg"),
-                        Sort.Order.desc("likeCount"),
-                        Sort.Order.desc("readCount")));
+    // Ordering for the ranking lists lives in the repository queries
+    public List<StorySummary> getTrendingStories(int limit) {
+        List<StorySummary> ranked = trendingRankingService.getTrending(null, 0, limit);
+        if (ranked != null) {
+            return ranked;
+        }
+        return storyRepository.findTrendingSummaries(PageRequest.of(0, limit));
+    }
 
-        return storyRepository.findTrendingStoriesByGenre(genreName, pageable);
+    public List<StorySummary> getRecentStories(int limit) {
+        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Order.desc("updatedAt")));
+        return storyRepository.findPublishedSummaries(pageable);
     }
 
-    public List<Story> getPopularStoriesByGenre(String genreName, int limit, int page) {
-        Pageable pageable = PageRequest.of(page, limit,
-                Sort.by(Sort.Order.desc("readCount"),
-                        Sort.Order.desc("likeCount"),
-                        Sort.Order.desc("ratingAvg")));
+    public List<StorySummary> getTrendingStoriesByGenre(String genreName, int limit, int page) {
+        List<StorySummary> ranked = trendingRankingService.getTrending(genreName, page * limit, limit);
+        if (ranked != null) {
+            return ranked;
+        }
+        return storyRepository.findTrendingSummariesByGenre(genreName, PageRequest.of(page, limit));
+    }
 
-        return storyRepository.findPopularStoriesByGenre(genreName, pageable);
+    public List<StorySummary> getPopularStoriesByGenre(String genreName, int limit, int page) {
+        return storyRepository.findPopularSummariesByGenre(genreName, PageRequest.of(page, limit));
     }
 }
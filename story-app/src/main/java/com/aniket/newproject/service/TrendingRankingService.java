@@ -0,0 +1,148 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.StorySummary;
+import com.aniket.newproject.model.Genre;
+import com.aniket.newproject.repo.GenreRepository;
+import com.aniket.newproject.repo.StoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Top-N trending stories, globally and per genre, kept in memory and patched as counters change
+@Service
+public class TrendingRankingService {
+
+    // Same order as StoryRepository.findTrendingSummaries, with id to keep entries distinct
+    private static final Comparator<StorySummary> TRENDING_ORDER = Comparator
+            .comparing(StorySummary::getRatingAvg, Comparator.reverseOrder())
+            .thenComparing(StorySummary::getLikeCount, Comparator.reverseOrder())
+            .thenComparing(StorySummary::getReadCount, Comparator.reverseOrder())
+            .thenComparing(StorySummary::getId);
+
+    private static final String GLOBAL = "";
+
+    private final StoryRepository storyRepository;
+    private final GenreRepository genreRepository;
+    private final int capacity;
+
+    // Null until the first rebuild; callers fall back to the database meanwhile
+    private volatile Map<String, Ranking> rankings;
+
+    public TrendingRankingService(StoryRepository storyRepository, GenreRepository genreRepository,
+                                  @Value("${app.trending.capacity:200}") int capacity) {
+        this.storyRepository = storyRepository;
+        this.genreRepository = genreRepository;
+        this.capacity = capacity;
+    }
+
+    // Returns null when memory can't answer (not built yet, or the page is past the kept top-N)
+    public List<StorySummary> getTrending(String genreName, int offset, int limit) {
+        Map<String, Ranking> current = rankings;
+        if (current == null) {
+            return null;
+        }
+
+        Ranking ranking = current.get(genreName == null ? GLOBAL : genreName);
+        if (ranking == null) {
+            return List.of();
+        }
+        return ranking.page(offset, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Full rebuild catches stories that climbed into the top-N without being tracked
+    @Scheduled(fixedDelayString = "${app.trending.rebuildMs:300000}", initialDelayString = "${app.trending.rebuildMs:300000}")
+    public void rebuild() {
+        try {
+            Map<String, Ranking> fresh = new ConcurrentHashMap<>();
+            fresh.put(GLOBAL, new Ranking(storyRepository.findTrendingSummaries(PageRequest.of(0, capacity))));
+            for (Genre genre : genreRepository.findAll()) {
+                fresh.put(genre.getName(), new Ranking(
+                        storyRepository.findTrendingSummariesByGenre(genre.getName(), PageRequest.of(0, capacity))));
+            }
+            rankings = fresh;
+        } catch (Exception e) {
+            System.err.println("Trending rebuild failed: " + e.getMessage());
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        Map<String, Ranking> current = rankings;
+        if (current == null) {
+            return;
+        }
+
+        // Every ranking gets exactly one replace per event, so concurrent events can't leave duplicates
+        Optional<StorySummary> story = storyRepository.findPublishedSummaryById(event.storyId())
+                .filter(summary -> summary.getRatingAvg() > 0);
+        String genre = story.map(StorySummary::getGenre).map(StorySummary.GenreRef::getName).orElse(null);
+        if (genre != null) {
+            current.computeIfAbsent(genre, name -> new Ranking(List.of()));
+        }
+        for (Map.Entry<String, Ranking> entry : current.entrySet()) {
+            boolean belongs = entry.getKey().equals(GLOBAL) || entry.getKey().equals(genre);
+            entry.getValue().replace(event.storyId(), belongs ? story.orElse(null) : null);
+        }
+    }
+
+    private class Ranking {
+        private final ConcurrentSkipListSet<StorySummary> ordered = new ConcurrentSkipListSet<>(TRENDING_ORDER);
+        private final Map<UUID, StorySummary> byId = new ConcurrentHashMap<>();
+        // Once something has been trimmed off the end, pages past the kept entries aren't known
+        private volatile boolean truncated;
+
+        Ranking(List<StorySummary> initial) {
+            initial.forEach(this::insert);
+            truncated = initial.size() >= capacity;
+        }
+
+        List<StorySummary> page(int offset, int limit) {
+            if (truncated && offset + limit > ordered.size()) {
+                return null;
+            }
+            return ordered.stream().skip(offset).limit(limit).toList();
+        }
+
+        // Swaps the story's entry for its new summary in one step; null only removes it
+        synchronized void replace(UUID storyId, StorySummary story) {
+            StorySummary previous = byId.remove(storyId);
+            if (previous != null) {
+                ordered.remove(previous);
+            }
+            if (story == null) {
+                return;
+            }
+            // Behind the last kept entry, stories trimmed earlier may rank higher: leave it to the database
+            if ((truncated || ordered.size() >= capacity) && !ordered.isEmpty()
+                    && TRENDING_ORDER.compare(story, ordered.last()) > 0) {
+                return;
+            }
+            insert(story);
+        }
+
+        private void insert(StorySummary story) {
+            ordered.add(story);
+            byId.put(story.getId(), story);
+            while (ordered.size() > capacity) {
+                StorySummary dropped = ordered.pollLast();
+                byId.remove(dropped.getId());
+                truncated = true;
+            }
+        }
+    }
+}
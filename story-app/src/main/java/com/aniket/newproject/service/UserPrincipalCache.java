@@ -0,0 +1,39 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.model.UserPrincipal;
+import com.aniket.newproject.repo.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Service
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principals;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${app.auth.principalCache.maxSize:10000}") long maxSize,
+                              @Value("${app.auth.principalCache.ttlSeconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserPrincipal get(String username) {
+        return principals.get(username, name -> userRepository.findByUsername(name)
+                .map(UserPrincipal::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User 404")));
+    }
+
+    public void evict(UUID userId) {
+        principals.asMap().values().removeIf(principal -> userId.equals(principal.getId()));
+    }
+}
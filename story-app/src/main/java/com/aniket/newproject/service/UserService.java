@@ -5,7 +5,9 @@ import com.aniket.newproject.model.*;
 import com.aniket.newproject.repo.*;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ public class UserService {
     private final FollowRepository followRepository;
     private final ReadRepository readRepository;
     private final LikeRepository likeRepository;
+    private final UserPrincipalCache principalCache;
 
     @Autowired
     private PasswordEncoder passwordEncoder; // Use the injected one for JWT
@@ -47,7 +50,9 @@ public class UserService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.evict(saved.getId());
+        return saved;
     }
 
     public User findByUsername(String username) {
@@ -139,6 +144,7 @@ public class UserService {
         return userRepository.findByEmail(email).isPresent();
     }
 
+    // The unique constraints on users do the duplicate check, so this is a single INSERT
     public User createUser(RegisterRequest registerRequest) {
         User user = new User();
         user.setUsername(registerRequest.getUsername());
@@ -149,7 +155,19 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException cve
+                    ? cve.getConstraintName() : null;
+            if (User.USERNAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+                throw new DuplicateUserException("Username is already taken!");
+            }
+            if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+                throw new DuplicateUserException("Email is already in use!");
+            }
+            throw e;
+        }
     }
 
     public Optional<User> findByUsernameOptional(String username) {
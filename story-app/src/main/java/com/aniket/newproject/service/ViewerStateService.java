@@ -0,0 +1,68 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.StoryViewerState;
+import com.aniket.newproject.model.ReadStatus;
+import com.aniket.newproject.repo.LikeRepository;
+import com.aniket.newproject.repo.RatingRepository;
+import com.aniket.newproject.repo.ReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+// Likes, ratings and reading state of one user for a page of stories: one IN query per relation
+// instead of one request per card and relation
+@Service
+@RequiredArgsConstructor
+public class ViewerStateService {
+
+    public static final int MAX_STORIES = 50;
+
+    private final LikeRepository likeRepository;
+    private final RatingRepository ratingRepository;
+    private final ReadRepository readRepository;
+    private final ReadingProgressBuffer progressBuffer;
+
+    // In the order of storyIds, duplicates dropped
+    public List<StoryViewerState> getViewerState(UUID userId, List<UUID> storyIds) {
+        Set<UUID> ids = new LinkedHashSet<>(storyIds);
+        if (ids.size() > MAX_STORIES) {
+            throw new IllegalArgumentException("At most " + MAX_STORIES + " stories per request");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, StoryViewerState> states = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            states.put(id, new StoryViewerState(id, false, null, null, null, null));
+        }
+
+        for (UUID storyId : likeRepository.findLikedStoryIds(userId, ids)) {
+            states.get(storyId).setLiked(true);
+        }
+        for (Object[] row : ratingRepository.findRatingsByStoryIds(userId, ids)) {
+            states.get((UUID) row[0]).setRating((Integer) row[1]);
+        }
+        for (Object[] row : readRepository.findStatesByStoryIds(userId, ids)) {
+            StoryViewerState state = states.get((UUID) row[0]);
+            state.setReadStatus((ReadStatus) row[1]);
+            state.setCurrentChapter((Integer) row[2]);
+            state.setProgress((Integer) row[3]);
+        }
+        // Positions not flushed yet, same rules as the flush applies to the row
+        for (StoryViewerState state : states.values()) {
+            ReadingProgressBuffer.Position position = progressBuffer.get(userId, state.getStoryId());
+            if (position != null) {
+                state.setReadStatus(ReadingProgressBuffer.statusAfterProgress(state.getReadStatus()));
+                state.setCurrentChapter(position.chapterNumber());
+                if (position.progress() != null) {
+                    state.setProgress(position.progress());
+                } else if (state.getProgress() == null) {
+                    state.setProgress(0);
+                }
+            }
+        }
+        return new ArrayList<>(states.values());
+    }
+}
@@ -0,0 +1,163 @@
+package com.aniket.newproject.config;
+
+import com.aniket.newproject.model.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication in the filter, old and new filters through the same doFilter call.
+ * previousFilter is the filter as it was before claims caching, minus its per-request stdout logging;
+ * uncachedToken presents a token the claims cache hasn't seen, so it pays the one verification.
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *   -Dexec.args="-cp %classpath com.aniket.newproject.config.JwtAuthTokenFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthTokenFilterBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidation";
+
+    // Far more distinct tokens than the uncached filter's claims cache holds, so none is still cached on reuse
+    private static final int UNCACHED_TOKENS = 1 << 16;
+
+    private OncePerRequestFilter previousFilter;
+    private OncePerRequestFilter filter;
+    private OncePerRequestFilter uncachedFilter;
+    private String token;
+    private String[] freshTokens;
+    private int nextFresh;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = jwtUtils(50000L);
+        JwtUtils smallCacheJwtUtils = jwtUtils(16L);
+
+        previousFilter = new PreviousJwtAuthTokenFilter(jwtUtils);
+        filter = filter(jwtUtils);
+        uncachedFilter = filter(smallCacheJwtUtils);
+
+        token = jwtUtils.generateJwtToken(reader());
+        freshTokens = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < freshTokens.length; i++) {
+            freshTokens[i] = smallCacheJwtUtils.generateJwtToken(reader());
+        }
+    }
+
+    @Benchmark
+    public Object previousFilter() throws Exception {
+        return authenticate(previousFilter, token);
+    }
+
+    // The real filter, hitting the verified claims cache for a token it has already seen
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        return authenticate(filter, token);
+    }
+
+    // The real filter on a token it hasn't seen: one verification plus the cache insert
+    @Benchmark
+    public Object uncachedToken() throws Exception {
+        String fresh = freshTokens[nextFresh];
+        nextFresh = (nextFresh + 1) % freshTokens.length;
+        return authenticate(uncachedFilter, fresh);
+    }
+
+    private static Object authenticate(OncePerRequestFilter filter, String jwt) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stories");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static JwtUtils jwtUtils(long claimsCacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", claimsCacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static JwtAuthTokenFilter filter(JwtUtils jwtUtils) {
+        JwtAuthTokenFilter filter = new JwtAuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        return filter;
+    }
+
+    private static UserPrincipal reader() {
+        return new UserPrincipal(UUID.randomUUID(), "reader", List.of(new SimpleGrantedAuthority("USER")));
+    }
+
+    // The filter before claims caching: validate, then extract the principal, each decoding the key,
+    // building a parser and verifying the HMAC again
+    static class PreviousJwtAuthTokenFilter extends OncePerRequestFilter {
+
+        private final JwtUtils jwtUtils;
+
+        PreviousJwtAuthTokenFilter(JwtUtils jwtUtils) {
+            this.jwtUtils = jwtUtils;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            String jwt = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+
+            if (jwt != null) {
+                parse(jwt);
+                UserPrincipal principal = jwtUtils.getPrincipalFromClaims(parse(jwt));
+
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+
+            filterChain.doFilter(request, response);
+        }
+
+        private static Claims parse(String jwt) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+            return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthTokenFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
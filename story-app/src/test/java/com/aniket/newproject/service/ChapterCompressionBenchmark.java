@@ -0,0 +1,215 @@
+package com.aniket.newproject.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.*;
+
+/**
+ * Compression ratio and CPU cost of candidate codecs for stored chapter bodies.
+ * Ratios are printed once per codec during setup; timings are per chapter.
+ * Uses the chapter files under -Dcorpus.dir (plain or .gz) when given, otherwise generated prose.
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *   -Dexec.args="-cp %classpath com.aniket.newproject.service.ChapterCompressionBenchmark"
+ *
+ * deflate+dict uses a preset dictionary built from the most frequent phrases of half the corpus
+ * and is measured on the other half. Browsers can't decode it as a Content-Encoding, so it only
+ * pays off if the store is ever decoupled from what goes on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChapterCompressionBenchmark {
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    @Param({"gzip-1", "gzip-6", "gzip-9", "deflate+dict-6", "deflate+dict-9"})
+    public String codec;
+
+    private byte[][] chapters;
+    private byte[][] compressed;
+    private byte[] dictionary;
+    private int level;
+    private boolean useDictionary;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> corpus = loadCorpus();
+        List<String> training = corpus.subList(0, corpus.size() / 2);
+        List<String> testing = corpus.subList(corpus.size() / 2, corpus.size());
+
+        level = Integer.parseInt(codec.substring(codec.lastIndexOf('-') + 1));
+        useDictionary = codec.startsWith("deflate+dict");
+        dictionary = useDictionary ? buildDictionary(training) : null;
+
+        chapters = testing.stream().map(text -> text.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        compressed = new byte[chapters.length][];
+        long plainBytes = 0;
+        long compressedBytes = 0;
+        for (int i = 0; i < chapters.length; i++) {
+            compressed[i] = compress(chapters[i]);
+            plainBytes += chapters[i].length;
+            compressedBytes += compressed[i].length;
+        }
+        System.out.printf("%n%s: %d chapters, %d -> %d bytes, ratio %.2f%n",
+                codec, chapters.length, plainBytes, compressedBytes, (double) plainBytes / compressedBytes);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return compress(chapters[next++ % chapters.length]);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws Exception {
+        return decompress(compressed[next++ % compressed.length]);
+    }
+
+    private byte[] compress(byte[] plain) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 3);
+        if (useDictionary) {
+            Deflater deflater = new Deflater(level);
+            deflater.setDictionary(dictionary);
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+                deflate.write(plain);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                gzip.write(plain);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] decompress(byte[] data) throws Exception {
+        if (!useDictionary) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                return in.readAllBytes();
+            }
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(dictionary);
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Most frequent three-word phrases, most frequent last since deflate favours nearby matches
+    private static byte[] buildDictionary(List<String> training) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String text : training) {
+            String[] words = text.split("\\s+");
+            for (int i = 0; i + 2 < words.length; i++) {
+                counts.merge(words[i] + " " + words[i + 1] + " " + words[i + 2] + " ", 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> phrases = new ArrayList<>(counts.entrySet());
+        phrases.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        Deque<byte[]> picked = new ArrayDeque<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> phrase : phrases) {
+            byte[] bytes = phrase.getKey().getBytes(StandardCharsets.UTF_8);
+            if (phrase.getValue() < 2 || size + bytes.length > DICTIONARY_SIZE) {
+                break;
+            }
+            picked.addFirst(bytes);
+            size += bytes.length;
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        picked.forEach(dictionary::writeBytes);
+        return dictionary.toByteArray();
+    }
+
+    private static List<String> loadCorpus() throws IOException {
+        String dir = System.getProperty("corpus.dir");
+        if (dir == null) {
+            return generatedCorpus();
+        }
+
+        List<String> corpus = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Path.of(dir))) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                try (InputStream in = file.toString().endsWith(".gz")
+                        ? new GZIPInputStream(Files.newInputStream(file))
+                        : Files.newInputStream(file)) {
+                    corpus.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (corpus.size() < 2) {
+            throw new IllegalStateException("Need at least two chapters under " + dir);
+        }
+        return corpus;
+    }
+
+    // Prose-like chapters: a fixed vocabulary, sentence and paragraph structure, recurring names
+    private static List<String> generatedCorpus() {
+        String[] words = ("the a and of to in was she he her his it that with for on as at by from they " +
+                "had not but were said when what which there their been would could into before after " +
+                "night light door window voice eyes hand heart silence forest river castle road city " +
+                "Elara Kael Mira Thorne whispered looked turned walked remembered never always again " +
+                "dark cold quiet ancient broken golden slowly softly suddenly finally almost only").split(" ");
+        Random random = new Random(42);
+        List<String> corpus = new ArrayList<>();
+        for (int chapter = 0; chapter < 40; chapter++) {
+            StringBuilder text = new StringBuilder();
+            for (int paragraph = 0; paragraph < 60; paragraph++) {
+                int sentences = 2 + random.nextInt(5);
+                for (int sentence = 0; sentence < sentences; sentence++) {
+                    int length = 6 + random.nextInt(14);
+                    for (int word = 0; word < length; word++) {
+                        String next = words[(int) Math.abs(random.nextGaussian() * words.length / 3) % words.length];
+                        text.append(word == 0 ? Character.toUpperCase(next.charAt(0)) + next.substring(1) : next);
+                        text.append(word == length - 1 ? ". " : " ");
+                    }
+                }
+                text.append('\n');
+            }
+            corpus.add(text.toString());
+        }
+        return corpus;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChapterCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
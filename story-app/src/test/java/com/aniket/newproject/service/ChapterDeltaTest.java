@@ -0,0 +1,92 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.TextOp;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Revisions are rebuilt by replaying decoded deltas, so diff -> encode -> decode -> apply must be lossless
+class ChapterDeltaTest {
+
+    @Test
+    void appliesRetainDeleteInsertLeftToRight() {
+        List<TextOp> ops = List.of(TextOp.retain(4), TextOp.delete(5), TextOp.insert("slow"));
+        assertEquals("The slow fox", ChapterDelta.apply("The quick fox", ops));
+    }
+
+    @Test
+    void keepsTextAfterTheLastOp() {
+        assertEquals("Hello, world", ChapterDelta.apply("Hello world", List.of(TextOp.retain(5), TextOp.insert(","))));
+        assertEquals("unchanged", ChapterDelta.apply("unchanged", List.of()));
+    }
+
+    @Test
+    void rejectsOpsThatRunPastTheText() {
+        assertThrows(IllegalArgumentException.class, () -> ChapterDelta.apply("short", List.of(TextOp.retain(6))));
+        assertThrows(IllegalArgumentException.class,
+                () -> ChapterDelta.apply("short", List.of(TextOp.retain(3), TextOp.delete(3))));
+        assertThrows(IllegalArgumentException.class, () -> ChapterDelta.apply("short", List.of(TextOp.delete(-1))));
+        assertThrows(IllegalArgumentException.class, () -> ChapterDelta.apply("short", List.of(new TextOp())));
+    }
+
+    @Test
+    void diffIsOneReplacedSpan() {
+        assertEquals(List.of(TextOp.retain(4), TextOp.delete(5), TextOp.insert("slow")),
+                ChapterDelta.diff("The quick fox", "The slow fox"));
+        assertEquals(List.of(TextOp.retain(4)), ChapterDelta.diff("same", "same"));
+    }
+
+    @Test
+    void roundTripsEdgeCases() {
+        String[][] edits = {
+                {"", ""},
+                {"", "new chapter"},
+                {"whole chapter", ""},
+                {"aaaa", "aa"},
+                {"abab", "ababab"},
+                {"line one\nline two", "line one\nline 1.5\nline two"},
+                {"café naïve", "cafés naïves"},
+                // Differ only in the low surrogate: the span must not start between the two halves
+                {"a😀b", "a😁b"},
+                // Differ only in the high surrogate: the span must not end between the two halves
+                {"a😀b", "a🨀b"},
+        };
+        for (String[] edit : edits) {
+            assertRoundTrip(edit[0], edit[1]);
+        }
+    }
+
+    @Test
+    void roundTripsRandomEdits() {
+        Random random = new Random(42);
+        String text = randomText(random, 200);
+        for (int i = 0; i < 500; i++) {
+            // Cut on code point boundaries; only diff() itself may be tempted to split a pair
+            int length = text.codePointCount(0, text.length());
+            int first = random.nextInt(length + 1);
+            int start = text.offsetByCodePoints(0, first);
+            int end = text.offsetByCodePoints(start, random.nextInt(length - first + 1));
+            String edited = text.substring(0, start) + randomText(random, random.nextInt(20)) + text.substring(end);
+            assertRoundTrip(text, edited);
+            text = edited;
+        }
+    }
+
+    private static void assertRoundTrip(String before, String after) {
+        List<TextOp> decoded = ChapterDelta.decode(ChapterDelta.encode(ChapterDelta.diff(before, after)));
+        assertEquals(after, ChapterDelta.apply(before, decoded), () -> "edit of \"" + before + "\"");
+    }
+
+    // Mixes ASCII, accented letters and emoji so edits land inside multi-byte and surrogate-pair characters
+    private static String randomText(Random random, int codePoints) {
+        int[] alphabet = {'a', 'b', ' ', '\n', 0xe9, 0x4e2d, 0x1F600, 0x1F601, 0x1F680};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < codePoints; i++) {
+            text.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.aniket.newproject.service;
+
+import com.aniket.newproject.dto.ChapterRequest;
+import com.aniket.newproject.dto.ChapterTocEntry;
+import com.aniket.newproject.model.Story;
+import com.aniket.newproject.model.User;
+import com.aniket.newproject.repo.StoryRepository;
+import com.aniket.newproject.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Parallel authors appending, inserting and deleting must leave chapters numbered 1..n with no duplicates
+@SpringBootTest
+class ChapterNumberingConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int CHAPTERS_PER_WRITER = 5;
+
+    @Autowired
+    private ChapterService chapterService;
+    @Autowired
+    private StoryRepository storyRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User author;
+    private Story story;
+
+    @BeforeEach
+    void setUp() {
+        String name = "numbering-" + UUID.randomUUID().toString().substring(0, 8);
+        author = new User();
+        author.setUsername(name);
+        author.setEmail(name + "@example.com");
+        author.setPassword("unused");
+        author = userRepository.save(author);
+
+        story = new Story();
+        story.setTitle("Numbering test");
+        story.setAuthor(author);
+        story = storyRepository.save(story);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chapterService.getTableOfContents(story.getId())
+                .forEach(entry -> chapterService.deleteChapter(story.getId(), entry.getId()));
+        storyRepository.deleteById(story.getId());
+        userRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void parallelAppendsGetDistinctConsecutiveNumbers() throws Exception {
+        runInParallel(writer -> {
+            for (int i = 0; i < CHAPTERS_PER_WRITER; i++) {
+                chapterService.createChapter(story.getId(), new ChapterRequest("w" + writer + "-" + i, "text", null));
+            }
+        });
+
+        assertNumberedOneToN(WRITERS * CHAPTERS_PER_WRITER);
+    }
+
+    @Test
+    void parallelInsertsAndDeletesKeepNumbersContiguous() throws Exception {
+        for (int i = 0; i < WRITERS * 2; i++) {
+            chapterService.createChapter(story.getId(), new ChapterRequest("seed-" + i, "text", null));
+        }
+
+        // Half the writers insert at the front, the other half delete whatever is currently chapter 1
+        runInParallel(writer -> {
+            for (int i = 0; i < CHAPTERS_PER_WRITER; i++) {
+                if (writer % 2 == 0) {
+                    chapterService.createChapter(story.getId(), new ChapterRequest("ins-" + writer + "-" + i, "text", 1));
+                } else {
+                    ChapterTocEntry first = chapterService.getTableOfContents(story.getId()).get(0);
+                    try {
+                        chapterService.deleteChapter(story.getId(), first.getId());
+                    } catch (RuntimeException e) {
+                        // Another writer deleted it first; that's fine
+                    }
+                }
+            }
+        });
+
+        List<ChapterTocEntry> toc = chapterService.getTableOfContents(story.getId());
+        assertNumberedOneToN(toc.size());
+    }
+
+    private void assertNumberedOneToN(int expected) {
+        List<Integer> numbers = chapterService.getTableOfContents(story.getId()).stream()
+                .map(ChapterTocEntry::getNumber)
+                .toList();
+        assertEquals(IntStream.rangeClosed(1, expected).boxed().toList(), numbers);
+    }
+
+    private void runInParallel(IntConsumerWithException work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int id = writer;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    work.accept(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntConsumerWithException {
+        void accept(int value) throws Exception;
+    }
+}
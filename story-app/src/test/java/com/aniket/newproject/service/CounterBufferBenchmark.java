@@ -0,0 +1,66 @@
+package com.aniket.newproject.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like-count increments on one viral story from many threads: CounterBuffer against a single
+ * ConcurrentHashMap entry, which is what every writer contends on without striping.
+ * A flusher thread drains the buffer the way LikeService.flush() does, only far more often.
+ * Run with: mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *   -Dexec.args="-cp %classpath com.aniket.newproject.service.CounterBufferBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CounterBufferBenchmark {
+
+    private final UUID story = UUID.randomUUID();
+    private final CounterBuffer<UUID> buffer = new CounterBuffer<>();
+    private final ConcurrentHashMap<UUID, Long> single = new ConcurrentHashMap<>();
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(8)
+    public void stripedAdd() {
+        buffer.add(story, 1);
+    }
+
+    @Benchmark
+    @Group("striped")
+    public long stripedDrain() {
+        Map<UUID, Long> deltas = buffer.beginFlush();
+        buffer.completeFlush(deltas);
+        return deltas.size();
+    }
+
+    @Benchmark
+    @Group("single")
+    @GroupThreads(8)
+    public void singleAdd() {
+        single.merge(story, 1L, Long::sum);
+    }
+
+    @Benchmark
+    @Group("single")
+    public long singleDrain() {
+        Long drained = single.remove(story);
+        return drained == null ? 0 : drained;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CounterBufferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
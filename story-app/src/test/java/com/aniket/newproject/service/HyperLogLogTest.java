@@ -0,0 +1,74 @@
+package com.aniket.newproject.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Estimates from the default 2^12 registers: about 1.6% standard error, near-exact while linear counting applies
+class HyperLogLogTest {
+
+    private static final int PRECISION = 12;
+
+    @Test
+    void readdingAReaderNeverChangesTheEstimate() {
+        HyperLogLog readers = new HyperLogLog(PRECISION);
+        UUID[] seen = readers(1, 500);
+        for (UUID reader : seen) {
+            readers.add(reader);
+        }
+        long estimate = readers.estimate();
+
+        for (UUID reader : seen) {
+            assertFalse(readers.add(reader));
+        }
+        assertEquals(estimate, readers.estimate());
+    }
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog(PRECISION).estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        for (int n : new int[]{1, 5, 10, 100, 1_000}) {
+            long estimate = estimate(n, n);
+            assertEquals(n, estimate, Math.max(1, n * 0.02), "estimate for " + n + " readers");
+        }
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinThreeStandardErrors() {
+        for (int n : new int[]{10_000, 100_000, 1_000_000}) {
+            long estimate = estimate(n, n);
+            assertEquals(n, estimate, n * 0.05, "estimate for " + n + " readers");
+        }
+    }
+
+    @Test
+    void rejectsPrecisionOutsideRange() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+    }
+
+    private static long estimate(long seed, int count) {
+        HyperLogLog readers = new HyperLogLog(PRECISION);
+        for (UUID reader : readers(seed, count)) {
+            readers.add(reader);
+        }
+        return readers.estimate();
+    }
+
+    // Random v4-style ids from a fixed seed, so the estimates (and the test) are reproducible
+    private static UUID[] readers(long seed, int count) {
+        Random random = new Random(seed);
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,90 @@
+package com.aniket.newproject.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// flush() writes only how much each story's distinct-reader estimate grew since the last flush
+class ReadCountServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ReadCountService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        service = new ReadCountService(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                entityManagerFactory, mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 12, 100);
+    }
+
+    @Test
+    void flushPushesOnlyGrowth() {
+        UUID story = UUID.randomUUID();
+        List<UUID> firstReaders = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        firstReaders.forEach(reader -> service.recordRead(story, reader));
+
+        service.flush();
+        assertEquals(List.of(3L), flushedDeltas(story));
+
+        // The same readers again: nothing to write
+        firstReaders.forEach(reader -> service.recordRead(story, reader));
+        service.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+
+        service.recordRead(story, firstReaders.get(0));
+        service.recordRead(story, UUID.randomUUID());
+        service.recordRead(story, UUID.randomUUID());
+        service.flush();
+        assertEquals(List.of(2L), flushedDeltas(story));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithTheSameGrowth() {
+        UUID story = UUID.randomUUID();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new RuntimeException("connection lost"))
+                .thenReturn(new int[]{1});
+        service.recordRead(story, UUID.randomUUID());
+        service.recordRead(story, UUID.randomUUID());
+
+        service.flush();
+        service.flush();
+
+        ArgumentCaptor<List<Object[]>> updates = updatesCaptor();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), updates.capture());
+        assertEquals(2L, updates.getAllValues().get(1).get(0)[0]);
+    }
+
+    private List<Long> flushedDeltas(UUID story) {
+        ArgumentCaptor<List<Object[]>> updates = updatesCaptor();
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE story SET read_count = read_count + ? WHERE id = ?"),
+                updates.capture());
+        clearInvocations(jdbcTemplate);
+        return updates.getValue().stream()
+                .filter(update -> update[1].equals(story))
+                .map(update -> (Long) update[0])
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> updatesCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}